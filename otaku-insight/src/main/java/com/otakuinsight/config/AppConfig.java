@@ -1,15 +1,53 @@
 package com.otakuinsight.config;
 
+import com.otakuinsight.controller.AnimeController;
+import com.otakuinsight.service.CatalogWarmer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class AppConfig {
 
+    @Value("${jikan.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${jikan.http.read-timeout:15s}")
+    private Duration readTimeout;
+
+    // One pooled JDK client for all upstream calls: keeps connections
+    // alive between requests (HTTP/2 multiplexes when the server allows)
+    // and never waits forever on a slow Jikan.
+    @Bean
+    public HttpClient jikanHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(HttpClient jikanHttpClient) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(jikanHttpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return new RestTemplate(requestFactory);
+    }
+
+    // With spring.main.lazy-initialization (prod profile): the scheduled
+    // warmer has to exist to be scheduled, and the anime endpoints are
+    // the hot path, so they and everything they use are built at startup.
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(AnimeController.class, CatalogWarmer.class);
     }
 
-}
\ No newline at end of file
+}
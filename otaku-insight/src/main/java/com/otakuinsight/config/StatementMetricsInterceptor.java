@@ -0,0 +1,55 @@
+package com.otakuinsight.config;
+
+import com.otakuinsight.repository.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records how many SQL statements each request issued, tagged like
+ * http.server.requests so the two can be lined up per endpoint.
+ */
+public class StatementMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public StatementMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        StatementCounter.begin();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // Streaming responses finish on another thread - don't leak the counter
+        StatementCounter.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+
+        int statements = StatementCounter.end();
+        if (statements < 0) {
+            return;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        DistributionSummary.builder("http.server.requests.db.statements")
+                .description("SQL statements issued while handling a request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements);
+    }
+}
@@ -1,14 +1,46 @@
 package com.otakuinsight.controller;
 
+import com.otakuinsight.dto.AnalysisJobDTO;
 import com.otakuinsight.dto.AnimeDTO;
+import com.otakuinsight.dto.BatchResultDTO;
 import com.otakuinsight.dto.EpisodeAnalysisDTO;
+import com.otakuinsight.dto.EpisodeRatingsDTO;
+import com.otakuinsight.dto.EpisodeTrendsDTO;
 import com.otakuinsight.dto.MangaInfoDTO;
+import com.otakuinsight.dto.StaleAware;
+import com.otakuinsight.external.UpstreamTimeoutException;
+import com.otakuinsight.external.UpstreamUnavailableException;
+import com.otakuinsight.service.AnalysisJob;
+import com.otakuinsight.service.AnalysisJobService;
 import com.otakuinsight.service.AnimeService;
+import com.otakuinsight.service.ContentVersions;
+import com.otakuinsight.service.DemandTracker;
 import com.otakuinsight.service.MangaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 
 @CrossOrigin(origins = "https://your-vercel-app.vercel.app")
@@ -20,19 +52,57 @@ public class AnimeController {
     private AnimeService animeService;
     @Autowired
     private MangaService mangaService;
+    @Autowired
+    private JsonMapper jsonMapper;
+    // Off the hot path: the job pool is only built on the first async request
+    @Autowired
+    @Lazy
+    private AnalysisJobService analysisJobService;
+
+    @Autowired
+    private ContentVersions contentVersions;
+    @Autowired
+    private DemandTracker demandTracker;
+
+    @Value("${batch.max-items:200}")
+    private int maxBatchItems;
+
+    @Value("${http-cache.finished.max-age:1d}")
+    private Duration finishedMaxAge;
+
+    @Value("${http-cache.finished.stale-while-revalidate:7d}")
+    private Duration finishedStaleWhileRevalidate;
+
+    @Value("${http-cache.airing.max-age:5m}")
+    private Duration airingMaxAge;
+
+    @Value("${http-cache.airing.stale-while-revalidate:1h}")
+    private Duration airingStaleWhileRevalidate;
+
+    private static final String FINISHED_AIRING = "Finished Airing";
+    private static final String FINISHED_PUBLISHING = "Finished";
 
 
     @GetMapping("/search")
     public ResponseEntity<AnimeDTO> searchAnime(
-            @RequestParam String name) {
+            @RequestParam String name,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         try {
-            AnimeDTO anime = animeService.searchAnime(name);
-            return ResponseEntity.ok(anime);
+            return conditional(ContentVersions.searchKey(name), ifNoneMatch,
+                    () -> {
+                        AnimeDTO anime = animeService.searchAnime(name);
+                        demandTracker.record(anime.getMalId());
+                        return anime;
+                    },
+                    anime -> FINISHED_AIRING.equalsIgnoreCase(anime.getStatus()));
 
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
 
+        } catch (UpstreamUnavailableException e) {
+            return upstreamFailure(e);
+
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
@@ -40,35 +110,260 @@ public class AnimeController {
 
 
 
+    /**
+     * Blocking by default. With async=true, a show that would need
+     * crawling is answered 202 with a job to poll (/api/jobs/{jobId}) or
+     * follow (/api/jobs/{jobId}/events) instead.
+     */
     @GetMapping("/{id}/episodes/analysis")
-    public ResponseEntity<EpisodeAnalysisDTO> getEpisodeAnalysis(
-            @PathVariable Long id) {
+    public ResponseEntity<?> getEpisodeAnalysis(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean async,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
+        demandTracker.record(id);
         try {
-            EpisodeAnalysisDTO analysis = animeService.analyzeEpisodes(id);
-            return ResponseEntity.ok(analysis);
+            if (async && !animeService.isAnalysisReady(id)) {
+                return accepted(analysisJobService.submit(id));
+            }
+
+            return conditional(ContentVersions.analysisKey(id), ifNoneMatch,
+                    () -> animeService.analyzeEpisodes(id),
+                    analysis -> FINISHED_AIRING.equalsIgnoreCase(analysis.getAnimeStatus()),
+                    () -> animeService.touchAnalysis(id));
 
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
 
+        } catch (UpstreamUnavailableException e) {
+            return upstreamFailure(e);
+
+        } catch (RejectedExecutionException e) {
+            // Job queue full
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
+    @GetMapping("/{id}/episodes/ratings")
+    public ResponseEntity<EpisodeRatingsDTO> getEpisodeRatings(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        demandTracker.record(id);
+        try {
+            return conditional(ContentVersions.ratingsKey(id), ifNoneMatch,
+                    () -> animeService.getRatingCurve(id),
+                    curve -> FINISHED_AIRING.equalsIgnoreCase(curve.getAnimeStatus()),
+                    () -> animeService.touchAnalysis(id));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+
+        } catch (UpstreamUnavailableException e) {
+            return upstreamFailure(e);
+
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @GetMapping("/{id}/episodes/trends")
+    public ResponseEntity<EpisodeTrendsDTO> getEpisodeTrends(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int window,
+            @RequestParam(defaultValue = "12") int segment,
+            @RequestParam(defaultValue = "100") int points,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        demandTracker.record(id);
+        try {
+            return conditional(contentVersions.trendsKey(id, window, segment, points), ifNoneMatch,
+                    () -> animeService.getTrends(id, window, segment, points),
+                    trends -> FINISHED_AIRING.equalsIgnoreCase(trends.getAnimeStatus()),
+                    () -> animeService.touchAnalysis(id));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+
+        } catch (UpstreamUnavailableException e) {
+            return upstreamFailure(e);
+
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     @GetMapping("/{id}/manga-info")
     public ResponseEntity<MangaInfoDTO> getMangaInfo(
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
+        demandTracker.record(id);
         try {
-            MangaInfoDTO mangaInfo = mangaService.getMangaInfo(id);
-            return ResponseEntity.ok(mangaInfo);
+            return conditional(ContentVersions.mangaKey(id), ifNoneMatch,
+                    () -> mangaService.getMangaInfo(id),
+                    mangaInfo -> FINISHED_PUBLISHING.equalsIgnoreCase(mangaInfo.getMangaStatus()));
 
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
 
+        } catch (UpstreamUnavailableException e) {
+            return upstreamFailure(e);
+
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
 
-}
\ No newline at end of file
+    private ResponseEntity<AnalysisJobDTO> accepted(AnalysisJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.getId()))
+                .body(job.snapshot());
+    }
+
+    // ==========================================
+    // Conditional GET - ETag + Cache-Control by airing status
+    // ==========================================
+
+    private <T> ResponseEntity<T> conditional(String key, String ifNoneMatch,
+                                              Supplier<T> load, Predicate<T> stable) {
+        return conditional(key, ifNoneMatch, load, stable, () -> {
+        });
+    }
+
+    // touch runs on a 304, for content whose refresh is driven by reads
+    private <T> ResponseEntity<T> conditional(String key, String ifNoneMatch,
+                                              Supplier<T> load, Predicate<T> stable, Runnable touch) {
+
+        // Repeat requests are answered from the version table alone
+        ContentVersions.Version known = contentVersions.find(key);
+        if (known != null && known.etag() != null && matches(ifNoneMatch, known.etag())) {
+            touch.run();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(known.etag())
+                    .cacheControl(cacheControl(known.stable()))
+                    .build();
+        }
+
+        long generation = known != null ? known.generation() : 0;
+        T body = load.get();
+
+        if (body instanceof StaleAware stale && stale.isStale()) {
+            // Outage fallback - let nobody downstream keep it
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(body);
+        }
+
+        // Strong ETag over the exact JSON we send
+        String etag = "\"" + DigestUtils.md5DigestAsHex(jsonMapper.writeValueAsBytes(body)) + "\"";
+        boolean isStable = stable.test(body);
+        contentVersions.record(key, generation, etag, isStable);
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl(isStable))
+                .body(body);
+    }
+
+    // Outages are 503, slow upstream is 504 - never a 404
+    private <T> ResponseEntity<T> upstreamFailure(UpstreamUnavailableException e) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(
+                e instanceof UpstreamTimeoutException ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.SERVICE_UNAVAILABLE);
+        if (e.getRetryAfter() != null) {
+            response.header(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000)));
+        }
+        return response.build();
+    }
+
+    private CacheControl cacheControl(boolean stable) {
+        return stable
+                ? CacheControl.maxAge(finishedMaxAge).staleWhileRevalidate(finishedStaleWhileRevalidate).cachePublic()
+                : CacheControl.maxAge(airingMaxAge).staleWhileRevalidate(airingStaleWhileRevalidate).cachePublic();
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // Weak comparison, as RFC 9110 requires for If-None-Match
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==========================================
+    // Batch endpoints - NDJSON, one line per item as soon as it is ready
+    // ==========================================
+
+    @PostMapping(value = "/batch/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> searchAnimeBatch(
+            @RequestBody List<String> names) {
+
+        return streamBatch(names, animeService::searchAnimeBatch);
+    }
+
+    @PostMapping(value = "/batch/episodes/analysis", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getEpisodeAnalysisBatch(
+            @RequestBody List<Long> ids) {
+
+        if (ids != null) {
+            ids.forEach(demandTracker::record);
+        }
+        return streamBatch(ids, animeService::analyzeEpisodesBatch);
+    }
+
+    @PostMapping(value = "/batch/manga-info", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getMangaInfoBatch(
+            @RequestBody List<Long> ids) {
+
+        if (ids != null) {
+            ids.forEach(demandTracker::record);
+        }
+        return streamBatch(ids, mangaService::getMangaInfoBatch);
+    }
+
+    private <K, T> ResponseEntity<StreamingResponseBody> streamBatch(
+            List<K> keys, BatchHandler<K, T> handler) {
+
+        if (keys == null || keys.isEmpty() || keys.size() > maxBatchItems) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Duplicates would only produce duplicate lines
+        Set<K> distinct = new LinkedHashSet<>(keys);
+
+        StreamingResponseBody body = out -> handler.handle(distinct, result -> writeLine(out, result));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeLine(OutputStream out, BatchResultDTO<?> result) {
+        try {
+            out.write(jsonMapper.writeValueAsBytes(result));
+            out.write('\n');
+            // Flush per line so the client can render each item right away
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BatchHandler<K, T> {
+        void handle(Set<K> keys, Consumer<BatchResultDTO<T>> sink);
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.otakuinsight.controller;
+
+import com.otakuinsight.dto.AnalysisJobDTO;
+import com.otakuinsight.service.AnalysisJob;
+import com.otakuinsight.service.AnalysisJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+
+@CrossOrigin(origins = "https://your-vercel-app.vercel.app")
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    @Autowired
+    private AnalysisJobService analysisJobService;
+
+    @Value("${jobs.events.timeout:30m}")
+    private Duration eventsTimeout;
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<AnalysisJobDTO> getJob(@PathVariable String jobId) {
+        AnalysisJob job = analysisJobService.find(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(job.snapshot());
+    }
+
+    /**
+     * Server-sent events: "progress" with the job state on every stored
+     * page, then one "succeeded" or "failed" with the final state.
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String jobId) {
+        AnalysisJob job = analysisJobService.find(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        SseEmitter emitter = new SseEmitter(eventsTimeout.toMillis());
+        Runnable unsubscribe = job.subscribe(state -> send(emitter, state));
+
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return ResponseEntity.ok(emitter);
+    }
+
+    private void send(SseEmitter emitter, AnalysisJobDTO state) {
+        boolean finished = AnalysisJob.Status.SUCCEEDED.name().equals(state.getStatus())
+                || AnalysisJob.Status.FAILED.name().equals(state.getStatus());
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(finished ? state.getStatus().toLowerCase() : "progress")
+                    .data(state, MediaType.APPLICATION_JSON));
+            if (finished) {
+                emitter.complete();
+            }
+
+        } catch (IOException | IllegalStateException e) {
+            // Client went away, or the emitter already timed out
+            emitter.completeWithError(e);
+        }
+    }
+}
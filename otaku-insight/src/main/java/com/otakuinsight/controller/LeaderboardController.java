@@ -0,0 +1,57 @@
+package com.otakuinsight.controller;
+
+import com.otakuinsight.dto.LeaderboardPageDTO;
+import com.otakuinsight.dto.RankedAnimeDTO;
+import com.otakuinsight.dto.RankedEpisodeDTO;
+import com.otakuinsight.service.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.function.Supplier;
+
+
+@CrossOrigin(origins = "https://your-vercel-app.vercel.app")
+@RestController
+@RequestMapping("/api/leaderboards")
+public class LeaderboardController {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @GetMapping("/episodes")
+    public ResponseEntity<LeaderboardPageDTO<RankedEpisodeDTO>> topEpisodes(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+
+        return page(() -> leaderboardService.topEpisodes(after, limit));
+    }
+
+    @GetMapping("/anime")
+    public ResponseEntity<LeaderboardPageDTO<RankedAnimeDTO>> topAnime(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+
+        return page(() -> leaderboardService.topAnime(year, after, limit));
+    }
+
+    @GetMapping("/consistent")
+    public ResponseEntity<LeaderboardPageDTO<RankedAnimeDTO>> mostConsistent(
+            @RequestParam(required = false) Integer minEpisodes,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+
+        return page(() -> leaderboardService.mostConsistent(minEpisodes, after, limit));
+    }
+
+    // Bad limits and cursors are the client's fault
+    private <T> ResponseEntity<T> page(Supplier<T> load) {
+        try {
+            return ResponseEntity.ok(load.get());
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
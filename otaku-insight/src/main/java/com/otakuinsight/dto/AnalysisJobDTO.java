@@ -0,0 +1,30 @@
+package com.otakuinsight.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous episode analysis. totalPages is null until
+ * Jikan has reported it; result is set once the job has SUCCEEDED.
+ * errorStatus is the HTTP status the blocking endpoint would have
+ * answered a FAILED job with.
+ */
+@Data
+public class AnalysisJobDTO {
+
+    private String jobId;
+    private Long animeId;
+    private String status;
+
+    private Integer pagesDone;
+    private Integer totalPages;
+
+    private EpisodeAnalysisDTO result;
+    private Integer errorStatus;
+    private String error;
+
+    private Instant createdAt;
+    private Instant completedAt;
+
+}
@@ -2,15 +2,23 @@ package com.otakuinsight.dto;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
-public class AnimeDTO {
+public class AnimeDTO implements StaleAware {
 
     private Long malId;
     private String title;
+    private String titleEnglish;
+    private String titleJapanese;
+    private List<String> titleSynonyms;
     private Integer episodes;
     private Double score;
     private String synopsis;
     private String imageUrl;
     private Integer year;
     private String status;
+
+    // Last known data, served because Jikan is unavailable
+    private boolean stale;
 }
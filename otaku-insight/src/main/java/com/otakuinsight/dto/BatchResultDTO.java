@@ -0,0 +1,17 @@
+package com.otakuinsight.dto;
+
+import lombok.Data;
+
+/**
+ * One line of a batch response: the requested id or name, the status the
+ * single-item endpoint would have answered with, and the payload or error.
+ */
+@Data
+public class BatchResultDTO<T> {
+
+    private Object key;
+    private int status;
+    private T data;
+    private String error;
+
+}
@@ -3,9 +3,10 @@ package com.otakuinsight.dto;
 import lombok.Data;
 
 @Data
-public class EpisodeAnalysisDTO {
+public class EpisodeAnalysisDTO implements StaleAware {
 
     private String animeName;
+    private String animeStatus;
     private Integer totalEpisodes;
     private Double averageRating;
 
@@ -15,4 +16,7 @@ public class EpisodeAnalysisDTO {
     private Long episodesAbove9;
     private Long episodesAbove8;
 
+    // Last known data, served because Jikan is unavailable
+    private boolean stale;
+
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.otakuinsight.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class EpisodePageDTO {
+
+    private Integer page;
+    private List<EpisodeDTO> episodes;
+    private Boolean hasNextPage;
+
+    // Jikan's last_visible_page, when it reports one
+    private Integer lastPage;
+
+}
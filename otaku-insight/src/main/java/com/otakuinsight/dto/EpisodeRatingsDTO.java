@@ -0,0 +1,21 @@
+package com.otakuinsight.dto;
+
+import lombok.Data;
+
+/**
+ * Rating curve of a show: parallel arrays, one slot per scored episode,
+ * ratings on the 10-point scale.
+ */
+@Data
+public class EpisodeRatingsDTO implements StaleAware {
+
+    private String animeName;
+    private String animeStatus;
+
+    private int[] episodeNumbers;
+    private double[] ratings;
+
+    // Built from a partial crawl because Jikan is unavailable
+    private boolean stale;
+
+}
@@ -0,0 +1,62 @@
+package com.otakuinsight.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Rating trends of a show, ratings on the 10-point scale.
+ *
+ * Peaks and slumps are the episodes that beat or fell short of the
+ * rolling average of the episodes before them by the widest margin.
+ */
+@Data
+public class EpisodeTrendsDTO implements StaleAware {
+
+    private String animeName;
+    private String animeStatus;
+    private Integer totalEpisodes;
+
+    private Double p10;
+    private Double p25;
+    private Double median;
+    private Double p75;
+    private Double p90;
+
+    private Integer rollingWindow;
+    private Integer segmentSize;
+
+    private List<Segment> segments;
+    private List<EpisodeDTO> peaks;
+    private List<EpisodeDTO> slumps;
+    private Curve curve;
+
+    // Built from a partial crawl because Jikan is unavailable
+    private boolean stale;
+
+    /** A run of segmentSize episodes by number (one cour by default). */
+    @Data
+    public static class Segment {
+        private Integer firstEpisode;
+        private Integer lastEpisode;
+        private Integer ratedEpisodes;
+        private Double averageRating;
+        private Double minRating;
+        private Double maxRating;
+    }
+
+    /**
+     * Downsampled rating curve for charting, as parallel arrays. Each
+     * point covers a run of consecutive episodes ending at episodes[i];
+     * rollingAverage is the trailing average at that episode.
+     */
+    @Data
+    public static class Curve {
+        private int[] episodes;
+        private double[] averageRating;
+        private double[] minRating;
+        private double[] maxRating;
+        private double[] rollingAverage;
+    }
+
+}
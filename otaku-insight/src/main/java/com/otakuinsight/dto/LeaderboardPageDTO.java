@@ -0,0 +1,17 @@
+package com.otakuinsight.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a leaderboard. Pass nextCursor back as "after" for the
+ * next page; it's null on the last one.
+ */
+@Data
+public class LeaderboardPageDTO<T> {
+
+    private List<T> items;
+    private String nextCursor;
+
+}
@@ -3,7 +3,7 @@ package com.otakuinsight.dto;
 import lombok.Data;
 
 @Data
-public class MangaInfoDTO {
+public class MangaInfoDTO implements StaleAware {
 
     private String animeTitle;
     private String mangaTitle;
@@ -13,4 +13,7 @@ public class MangaInfoDTO {
     private String continueFromChapter;
     private String note;
 
+    // Last known data, served because Jikan is unavailable
+    private boolean stale;
+
 }
\ No newline at end of file
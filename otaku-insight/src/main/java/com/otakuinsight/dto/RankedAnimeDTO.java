@@ -0,0 +1,23 @@
+package com.otakuinsight.dto;
+
+import lombok.Data;
+
+/**
+ * An anime on a leaderboard. The episode figures are null until its
+ * episodes have been crawled; ratings are on the 10-point scale.
+ */
+@Data
+public class RankedAnimeDTO {
+
+    private Long malId;
+    private String title;
+    private Integer year;
+    private Double score;
+    private String status;
+    private String imageUrl;
+
+    private Integer ratedEpisodes;
+    private Double averageRating;
+    private Double ratingStdDev;
+
+}
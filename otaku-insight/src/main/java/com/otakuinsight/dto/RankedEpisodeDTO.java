@@ -0,0 +1,14 @@
+package com.otakuinsight.dto;
+
+import lombok.Data;
+
+@Data
+public class RankedEpisodeDTO {
+
+    private Long animeMalId;
+    private String animeTitle;
+    private Integer episodeNumber;
+    private String title;
+    private Double rating;
+
+}
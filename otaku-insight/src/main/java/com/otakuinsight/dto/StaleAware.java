@@ -0,0 +1,11 @@
+package com.otakuinsight.dto;
+
+/**
+ * Responses that can be served from the last known data while Jikan is
+ * down. Stale ones are never cached downstream.
+ */
+public interface StaleAware {
+
+    boolean isStale();
+
+}
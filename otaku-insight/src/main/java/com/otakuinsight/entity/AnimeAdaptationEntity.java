@@ -0,0 +1,34 @@
+package com.otakuinsight.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * One manga listed under an anime's Adaptation relations; position keeps
+ * Jikan's order, since the first entry is the one manga info reports on.
+ */
+@Data
+@Entity
+@Table(name = "anime_adaptations",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_anime_adaptations_anime_position",
+                columnNames = {"anime_mal_id", "position"}))
+public class AnimeAdaptationEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "anime_mal_id")
+    private Long animeMalId;
+
+    @Column(name = "position")
+    private Integer position;
+
+    @Column(name = "manga_mal_id")
+    private Long mangaMalId;
+
+    @Column(name = "manga_name")
+    private String mangaName;
+
+}
@@ -5,7 +5,12 @@ import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "anime")
+@Table(name = "anime",
+        indexes = {
+                // Leaderboards by score, per year or overall
+                @Index(name = "idx_anime_year_score", columnList = "year, score DESC, mal_id"),
+                @Index(name = "idx_anime_score", columnList = "score DESC, mal_id")
+        })
 public class AnimeEntity {
 
     @Id
@@ -15,6 +20,16 @@ public class AnimeEntity {
     @Column(name = "title")
     private String title;
 
+    @Column(name = "title_english")
+    private String titleEnglish;
+
+    @Column(name = "title_japanese")
+    private String titleJapanese;
+
+    // Synonyms, one per line
+    @Column(name = "title_synonyms", columnDefinition = "TEXT")
+    private String titleSynonyms;
+
     @Column(name = "episodes")
     private Integer episodes;
 
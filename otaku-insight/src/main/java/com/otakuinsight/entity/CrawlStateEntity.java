@@ -0,0 +1,26 @@
+package com.otakuinsight.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Entity
+@Table(name = "episode_crawl_state")
+public class CrawlStateEntity {
+
+    @Id
+    @Column(name = "anime_mal_id")
+    private Long animeMalId;
+
+    @Column(name = "last_page")
+    private Integer lastPage;
+
+    @Column(name = "has_next_page")
+    private Boolean hasNextPage;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+}
@@ -2,10 +2,20 @@ package com.otakuinsight.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
 @Entity
-@Table(name = "episodes")
+@Table(name = "episodes",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_episodes_anime_episode",
+                columnNames = {"anime_mal_id", "episode_number"}),
+        indexes = {
+                // Top episodes across the catalog, in leaderboard order
+                @Index(name = "idx_episodes_rating", columnList = "rating DESC, anime_mal_id, episode_number"),
+                @Index(name = "idx_episodes_anime_rating", columnList = "anime_mal_id, rating")
+        })
 public class EpisodeEntity {
 
     @Id
@@ -21,8 +31,11 @@ public class EpisodeEntity {
     @Column(name = "rating")
     private Double rating;
 
-    @ManyToOne
+    // Lazy: episode reads never need the parent row
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "anime_mal_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private AnimeEntity anime;
 
 }
@@ -0,0 +1,71 @@
+package com.otakuinsight.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Running episode statistics for one anime, kept up to date as episodes
+ * are written so an analysis never has to load the episode rows.
+ * Ratings are on the 10-point scale shown to users.
+ */
+@Data
+@Entity
+@Table(name = "episode_stats",
+        indexes = @Index(name = "idx_episode_stats_stddev", columnList = "rating_stddev, anime_mal_id"))
+public class EpisodeStatsEntity {
+
+    @Id
+    @Column(name = "anime_mal_id")
+    private Long animeMalId;
+
+    @Column(name = "episode_count")
+    private Integer episodeCount;
+
+    @Column(name = "rating_sum")
+    private Double ratingSum;
+
+    @Column(name = "rating_sum_squares")
+    private Double ratingSumSquares;
+
+    // Derived from the sums so the leaderboards can sort on an index
+    @Column(name = "average_rating")
+    private Double averageRating;
+
+    @Column(name = "rating_stddev")
+    private Double ratingStdDev;
+
+    @Column(name = "min_rating")
+    private Double minRating;
+
+    @Column(name = "min_episode_number")
+    private Integer minEpisodeNumber;
+
+    @Column(name = "min_episode_title")
+    private String minEpisodeTitle;
+
+    @Column(name = "max_rating")
+    private Double maxRating;
+
+    @Column(name = "max_episode_number")
+    private Integer maxEpisodeNumber;
+
+    @Column(name = "max_episode_title")
+    private String maxEpisodeTitle;
+
+    @Column(name = "episodes_above_9")
+    private Integer episodesAbove9;
+
+    @Column(name = "episodes_above_8")
+    private Integer episodesAbove8;
+
+    // Episode counts per whole rating point, [0,1) .. [9,10]
+    @Convert(converter = IntArrayConverter.class)
+    @Column(name = "histogram", length = 200)
+    private int[] histogram;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+}
@@ -0,0 +1,35 @@
+package com.otakuinsight.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Stores a small int[] as a comma separated string, which every database
+ * we run on (MySQL, H2) handles without array support.
+ */
+@Converter
+public class IntArrayConverter implements AttributeConverter<int[], String> {
+
+    @Override
+    public String convertToDatabaseColumn(int[] values) {
+        if (values == null) {
+            return null;
+        }
+        return Arrays.stream(values)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
+    @Override
+    public int[] convertToEntityAttribute(String column) {
+        if (column == null || column.isEmpty()) {
+            return null;
+        }
+        return Arrays.stream(column.split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+}
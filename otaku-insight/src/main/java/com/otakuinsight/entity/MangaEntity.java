@@ -0,0 +1,31 @@
+package com.otakuinsight.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Manga details from an imported snapshot, so manga info can be served
+ * without asking Jikan.
+ */
+@Data
+@Entity
+@Table(name = "manga")
+public class MangaEntity {
+
+    @Id
+    @Column(name = "mal_id")
+    private Long malId;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "chapters")
+    private Integer chapters;
+
+    @Column(name = "volumes")
+    private Integer volumes;
+
+    @Column(name = "status")
+    private String status;
+
+}
@@ -0,0 +1,128 @@
+package com.otakuinsight.external;
+
+/**
+ * Count-based circuit breaker over the last windowSize calls.
+ *
+ * Opens once at least minCalls have been seen and the failure rate
+ * reaches the threshold. After openNanos a single trial call is let
+ * through: success closes the circuit, failure re-opens it.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    // Hint for callers rejected while the half-open trial is running
+    private static final long TRIAL_RETRY_NANOS = 1_000_000_000L;
+
+    private final boolean[] window;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int windowSize, int minCalls, double failureRateThreshold, long openNanos) {
+        this.window = new boolean[windowSize];
+        this.minCalls = minCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * Returns 0 if the call may proceed, otherwise roughly how many
+     * nanoseconds until it is worth trying again.
+     */
+    synchronized long tryAcquire(long now) {
+        switch (state) {
+            case CLOSED:
+                return 0;
+            case OPEN:
+                long remaining = openedAt + openNanos - now;
+                if (remaining > 0) {
+                    return remaining;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return 0;
+            default:
+                if (trialInFlight) {
+                    return TRIAL_RETRY_NANOS;
+                }
+                trialInFlight = true;
+                return 0;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            open(now);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minCalls && (double) failures / recorded >= failureRateThreshold) {
+                open(now);
+            }
+        }
+    }
+
+    /** The call ended without telling us anything about upstream health. */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+        trialInFlight = false;
+        resetWindow();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        trialInFlight = false;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
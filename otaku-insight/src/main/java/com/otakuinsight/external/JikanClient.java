@@ -2,88 +2,114 @@ package com.otakuinsight.external;
 
 import com.otakuinsight.dto.AnimeDTO;
 import com.otakuinsight.dto.EpisodeDTO;
+import com.otakuinsight.dto.EpisodePageDTO;
+import com.otakuinsight.external.JikanRequestScheduler.Priority;
+import com.otakuinsight.external.JikanResilience.Family;
+import com.otakuinsight.external.model.JikanAnime;
+import com.otakuinsight.external.model.JikanEpisode;
+import com.otakuinsight.external.model.JikanManga;
+import com.otakuinsight.external.model.JikanRelation;
+import com.otakuinsight.external.model.JikanResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-
-import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 @Component
 public class JikanClient {
 
-    private static final String JIKAN_BASE_URL = "https://api.jikan.moe/v4";
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+");
+
+    // Typed responses: Jackson streams the body and skips every field
+    // the records don't declare, instead of building a Map tree
+    private static final ParameterizedTypeReference<JikanResponse<List<JikanAnime>>> ANIME_LIST =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<JikanResponse<JikanAnime>> ANIME =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<JikanResponse<List<JikanEpisode>>> EPISODE_PAGE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<JikanResponse<List<JikanRelation>>> RELATIONS =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<JikanResponse<JikanManga>> MANGA =
+            new ParameterizedTypeReference<>() {};
 
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private JikanRequestScheduler scheduler;
+
+    @Autowired
+    private JikanResilience resilience;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Point at a local stub (or a Jikan mirror) for load tests and CI
+    @Value("${jikan.base-url:https://api.jikan.moe/v4}")
+    private String baseUrl;
+
+    // Offline: never call upstream, every lookup comes back empty
+    @Value("${jikan.offline:false}")
+    private boolean offline;
+
+    /**
+     * True when upstream calls are disabled and the local database (e.g.
+     * an imported snapshot) is the only source of anime data.
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
     public AnimeDTO searchAnime(String animeName) {
 
-        // Step 1: Build the URL
-        String url = JIKAN_BASE_URL + "/anime?q=" + animeName + "&limit=1";
+        // Step 1: Build the path (the base URL is configurable)
+        String path = "/anime?q=" + animeName + "&limit=1";
 
         // Step 2: Call Jikan API and get response
-        Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+        JikanResponse<List<JikanAnime>> response = get(Family.SEARCH, path, ANIME_LIST, Priority.INTERACTIVE);
 
         // Step 3: Extract the first anime from response
-        if (response != null && response.containsKey("data")) {
-            java.util.List<Map<String, Object>> dataList =
-                    (java.util.List<Map<String, Object>>) response.get("data");
+        if (response != null && response.data() != null && !response.data().isEmpty()) {
 
-            if (!dataList.isEmpty()) {
-                Map<String, Object> animeData = dataList.get(0);
-
-                // Step 4: Convert to AnimeDTO
-                return mapToAnimeDTO(animeData);
-            }
+            // Step 4: Convert to AnimeDTO
+            return mapToAnimeDTO(response.data().get(0));
         }
 
         return null; // No anime found
     }
 
-    private AnimeDTO mapToAnimeDTO(Map<String, Object> animeData) {
+    public static AnimeDTO mapToAnimeDTO(JikanAnime animeData) {
         AnimeDTO dto = new AnimeDTO();
 
-        // Extract each field from the Map and set it in DTO
-        dto.setMalId(((Number) animeData.get("mal_id")).longValue());
-        dto.setTitle((String) animeData.get("title"));
+        dto.setMalId(animeData.malId());
+        dto.setTitle(animeData.title());
+        dto.setTitleEnglish(animeData.titleEnglish());
+        dto.setTitleJapanese(animeData.titleJapanese());
+        dto.setTitleSynonyms(animeData.titleSynonyms());
+        dto.setEpisodes(animeData.episodes());
+        dto.setScore(animeData.score());
+        dto.setSynopsis(animeData.synopsis());
+        dto.setStatus(animeData.status());
 
-        if (animeData.get("episodes") != null) {
-            dto.setEpisodes(((Number) animeData.get("episodes")).intValue());
-        }
-
-        if (animeData.get("score") != null) {
-            dto.setScore(((Number) animeData.get("score")).doubleValue());
-        }
-
-        dto.setSynopsis((String) animeData.get("synopsis"));
-        dto.setStatus((String) animeData.get("status"));
-
-        // Extract image URL
-        if (animeData.containsKey("images")) {
-            Map<String, Object> images = (Map<String, Object>) animeData.get("images");
-            if (images.containsKey("jpg")) {
-                Map<String, Object> jpg = (Map<String, Object>) images.get("jpg");
-                dto.setImageUrl((String) jpg.get("image_url"));
-            }
-        }
-
-        // Extract year
-        if (animeData.containsKey("aired")) {
-            Map<String, Object> aired = (Map<String, Object>) animeData.get("aired");
-            if (aired.containsKey("prop")) {
-                Map<String, Object> prop = (Map<String, Object>) aired.get("prop");
-                if (prop.containsKey("from")) {
-                    Map<String, Object> from = (Map<String, Object>) prop.get("from");
-                    if (from.get("year") != null) {
-                        dto.setYear(((Number) from.get("year")).intValue());
-                    }
-                }
-            }
-        }
+        // images.jpg.image_url and aired.prop.from.year, null-safe
+        dto.setImageUrl(animeData.imageUrl());
+        dto.setYear(animeData.year());
 
         return dto;
     }
@@ -92,148 +118,246 @@ public class JikanClient {
 
         // This list will collect ALL episodes from ALL pages
         List<EpisodeDTO> allEpisodes = new ArrayList<>();
+        streamEpisodes(animeId, 1, page -> allEpisodes.addAll(page.getEpisodes()));
+        return allEpisodes;
+    }
 
-        int currentPage = 1;
+    /**
+     * Walks the episode pages starting at startPage and hands each page
+     * to the consumer as soon as it is parsed, so callers can persist
+     * incrementally instead of waiting for the whole crawl.
+     */
+    public void streamEpisodes(Long animeId, int startPage, Consumer<EpisodePageDTO> onPage) {
+
+        int currentPage = startPage;
         boolean hasNextPage = true;
 
-        // Keep fetching pages until no more pages exist
-        while (hasNextPage) {
+        try {
+            // Keep fetching pages until no more pages exist
+            while (hasNextPage) {
 
-            // Build URL with page number
-            String url = JIKAN_BASE_URL + "/anime/" + animeId + "/episodes?page=" + currentPage;
+                // Build path with page number
+                String path = "/anime/" + animeId + "/episodes?page=" + currentPage;
 
-            // Call Jikan API
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+                // Call Jikan API - paging yields to interactive lookups
+                JikanResponse<List<JikanEpisode>> response = get(Family.EPISODES, path, EPISODE_PAGE, Priority.BACKGROUND);
 
-            if (response == null) {
-                break; // Something went wrong, stop loop
-            }
+                if (response == null) {
+                    break; // Something went wrong, stop loop
+                }
 
-            // Extract episode list from response
-            List<Map<String, Object>> episodeDataList =
-                    (List<Map<String, Object>>) response.get("data");
+                List<JikanEpisode> episodeDataList = response.data();
 
-            if (episodeDataList == null || episodeDataList.isEmpty()) {
-                break; // No episodes found, stop loop
-            }
+                if (episodeDataList == null || episodeDataList.isEmpty()) {
+                    break; // No episodes found, stop loop
+                }
 
-            // Convert each episode Map to EpisodeDTO
-            for (Map<String, Object> episodeData : episodeDataList) {
-                EpisodeDTO episode = mapToEpisodeDTO(episodeData);
-                if (episode != null) {
-                    allEpisodes.add(episode);
+                // Convert each episode to EpisodeDTO
+                List<EpisodeDTO> episodes = new ArrayList<>(episodeDataList.size());
+                for (JikanEpisode episodeData : episodeDataList) {
+                    EpisodeDTO episode = mapToEpisodeDTO(episodeData);
+                    if (episode != null) {
+                        episodes.add(episode);
+                    }
                 }
+
+                // Check pagination - should we fetch next page?
+                Integer lastPage = null;
+                if (response.pagination() != null) {
+                    hasNextPage = Boolean.TRUE.equals(response.pagination().hasNextPage());
+                    lastPage = response.pagination().lastVisiblePage();
+                } else {
+                    hasNextPage = false; // No pagination info, stop loop
+                }
+
+                EpisodePageDTO page = new EpisodePageDTO();
+                page.setPage(currentPage);
+                page.setEpisodes(episodes);
+                page.setHasNextPage(hasNextPage);
+                page.setLastPage(lastPage);
+                onPage.accept(page);
+
+                // Move to next page (pacing is handled by the scheduler)
+                currentPage++;
             }
+        } finally {
+            DistributionSummary.builder("jikan.episodes.pages")
+                    .description("Episode pages fetched per crawl")
+                    .register(meterRegistry)
+                    .record(currentPage - startPage);
+        }
+    }
+
+    /**
+     * Anime airing this season, in Jikan's order (most members first).
+     */
+    public List<AnimeDTO> fetchCurrentSeason(int limit) {
+        return fetchAnimeList("/seasons/now", limit);
+    }
+
+    /**
+     * MAL's top anime by rank.
+     */
+    public List<AnimeDTO> fetchTopAnime(int limit) {
+        return fetchAnimeList("/top/anime", limit);
+    }
 
-            // Check pagination - should we fetch next page?
-            Map<String, Object> pagination =
-                    (Map<String, Object>) response.get("pagination");
+    private List<AnimeDTO> fetchAnimeList(String path, int limit) {
 
-            if (pagination != null) {
-                hasNextPage = (Boolean) pagination.get("has_next_page");
-            } else {
-                hasNextPage = false; // No pagination info, stop loop
+        List<AnimeDTO> anime = new ArrayList<>(limit);
+        int page = 1;
+
+        // Jikan serves at most 25 per page
+        while (anime.size() < limit) {
+            String pagePath = path + "?limit=" + Math.min(limit - anime.size(), 25) + "&page=" + page;
+            JikanResponse<List<JikanAnime>> response = get(Family.SEARCH, pagePath, ANIME_LIST, Priority.BACKGROUND);
+
+            if (response == null || response.data() == null || response.data().isEmpty()) {
+                break;
             }
 
-            // Move to next page
-            currentPage++;
+            for (JikanAnime animeData : response.data()) {
+                if (anime.size() < limit) {
+                    anime.add(mapToAnimeDTO(animeData));
+                }
+            }
 
-            // Small delay to respect Jikan API rate limits
-            try {
-                Thread.sleep(500); // Wait 0.5 seconds between requests
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            if (response.pagination() == null || !Boolean.TRUE.equals(response.pagination().hasNextPage())) {
                 break;
             }
+            page++;
         }
 
-        return allEpisodes;
+        return anime;
     }
 
-    private EpisodeDTO mapToEpisodeDTO(Map<String, Object> episodeData) {
+    public static EpisodeDTO mapToEpisodeDTO(JikanEpisode episodeData) {
 
         // Some episodes have no score - skip them
-        if (episodeData.get("score") == null) {
+        if (episodeData.score() == null) {
             return null;
         }
 
         EpisodeDTO dto = new EpisodeDTO();
-
-        // Set episode number
-        if (episodeData.get("mal_id") != null) {
-            dto.setEpisodeNumber(((Number) episodeData.get("mal_id")).intValue());
-        }
-
-        // Set title
-        dto.setTitle((String) episodeData.get("title"));
-
-        // Set rating
-        dto.setRating(((Number) episodeData.get("score")).doubleValue());
-
+        dto.setEpisodeNumber(episodeData.malId());
+        dto.setTitle(episodeData.title());
+        dto.setRating(episodeData.score());
         return dto;
     }
 
     public AnimeDTO searchAnimeById(Long animeId) {
 
-        String url = JIKAN_BASE_URL + "/anime/" + animeId;
+        String path = "/anime/" + animeId;
 
-        Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+        JikanResponse<JikanAnime> response = get(Family.SEARCH, path, ANIME, Priority.INTERACTIVE);
 
-        if (response != null && response.containsKey("data")) {
-            Map<String, Object> animeData =
-                    (Map<String, Object>) response.get("data");
-            return mapToAnimeDTO(animeData);
+        if (response != null && response.data() != null) {
+            return mapToAnimeDTO(response.data());
         }
 
         return null;
     }
 
-    public Map<String, Object> fetchRelatedManga(Long animeId) {
+    /**
+     * Every manga entry listed under the anime's Adaptation relations,
+     * in the order Jikan returns them.
+     */
+    public List<JikanRelation.Entry> fetchAdaptationManga(Long animeId) {
 
-        String url = JIKAN_BASE_URL + "/anime/" + animeId + "/relations";
-        Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-        if (response == null) return null;
+        String path = "/anime/" + animeId + "/relations";
+        JikanResponse<List<JikanRelation>> response = get(Family.RELATIONS, path, RELATIONS, Priority.INTERACTIVE);
 
-        List<Map<String, Object>> relations =
-                (List<Map<String, Object>>) response.get("data");
+        if (response == null || response.data() == null) return new ArrayList<>();
 
-        if (relations == null || relations.isEmpty()) return null;
+        return adaptationsOf(response.data());
+    }
 
-        // Loop through all relations
-        for (Map<String, Object> relation : relations) {
-            Object relationTypeObj = relation.get("relation");
-            if (relationTypeObj == null) continue;
+    /**
+     * The manga entries under the Adaptation relations, in order. Shared
+     * with the snapshot importer so both read relations the same way.
+     */
+    public static List<JikanRelation.Entry> adaptationsOf(List<JikanRelation> relations) {
 
-            String relationType = relationTypeObj.toString();
+        List<JikanRelation.Entry> adaptations = new ArrayList<>();
 
-            if (relationType.equalsIgnoreCase("Adaptation")) {
-                // Get the entry list
-                List<Map<String, Object>> entries =
-                        (List<Map<String, Object>>) relation.get("entry");
+        // Loop through all relations
+        for (JikanRelation relation : relations) {
+            if (relation.relation() == null || relation.entry() == null) continue;
 
-                if (entries == null || entries.isEmpty()) continue;
+            if (relation.relation().equalsIgnoreCase("Adaptation")) {
 
-                // Find manga type entry
-                for (Map<String, Object> entry : entries) {
-                    Object typeObj = entry.get("type");
-                    if (typeObj != null &&
-                            typeObj.toString().equalsIgnoreCase("manga")) {
-                        return entry; // Return manga entry!
+                // Collect manga type entries
+                for (JikanRelation.Entry entry : relation.entry()) {
+                    if (entry.type() != null &&
+                            entry.type().equalsIgnoreCase("manga")) {
+                        adaptations.add(entry);
                     }
                 }
             }
         }
-        return null;
+        return adaptations;
     }
 
-    public Map<String, Object> fetchMangaDetails(Long mangaId) {
+    public JikanManga fetchMangaDetails(Long mangaId) {
 
-        String url = "https://api.jikan.moe/v4/manga/" + mangaId;
-        Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+        String path = "/manga/" + mangaId;
+        JikanResponse<JikanManga> response = get(Family.MANGA, path, MANGA, Priority.INTERACTIVE);
 
         if (response == null) return null;
 
-        return (Map<String, Object>) response.get("data");
+        return response.data();
+    }
+
+    private <T> T get(Family family, String path, ParameterizedTypeReference<T> type, Priority priority) {
+
+        if (offline) {
+            // Same as Jikan having nothing - callers fall back to stored data or 404
+            return null;
+        }
+
+        String url = baseUrl + path;
+
+        // Timed end to end (rate-limit wait included), tagged by endpoint and outcome
+        Observation observation = Observation.createNotStarted("jikan.requests", observationRegistry)
+                .contextualName("jikan " + endpointOf(path))
+                .lowCardinalityKeyValue("endpoint", endpointOf(path))
+                .lowCardinalityKeyValue("priority", priority.name().toLowerCase())
+                .start();
+
+        try (Observation.Scope scope = observation.openScope()) {
+            // Breaker and bulkhead outside the rate limiter, so queued callers count too
+            T body = resilience.call(family, () -> scheduler.execute(priority, () ->
+                    restTemplate.exchange(url, HttpMethod.GET, null, type).getBody()));
+            observation.lowCardinalityKeyValue("status", "200");
+            return body;
+
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue("status", statusOf(e));
+            observation.error(e);
+            throw e;
+
+        } finally {
+            observation.stop();
+        }
+    }
+
+    // /anime/5114/episodes -> /anime/{id}/episodes, so tags stay low-cardinality
+    static String endpointOf(String path) {
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        return NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    private static String statusOf(RuntimeException e) {
+        Throwable cause = e instanceof UpstreamUnavailableException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof HttpStatusCodeException http) {
+            return String.valueOf(http.getStatusCode().value());
+        }
+        if (e instanceof UpstreamTimeoutException) {
+            return "timeout";
+        }
+        return e instanceof UpstreamUnavailableException ? "unavailable" : "error";
     }
-}
\ No newline at end of file
+}
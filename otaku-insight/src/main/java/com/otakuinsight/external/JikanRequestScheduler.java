@@ -0,0 +1,411 @@
+package com.otakuinsight.external;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Single gate for every outbound Jikan call.
+ *
+ * Jikan allows a few requests per second and a fixed number per minute
+ * across the whole process, so all callers share two token buckets.
+ * Waiting callers are admitted in priority order (interactive searches
+ * before background episode paging), and a 429 pauses everyone until
+ * the Retry-After the upstream asked for has passed. Cache warming runs
+ * at the lowest priority and is further capped to a share of the
+ * per-minute budget, so it only ever uses capacity users leave idle.
+ *
+ * A demotion (runAs) is a Ceiling shared by the work and every thread
+ * it starts. A caller that ends up waiting on that work lifts the
+ * ceiling to its own priority (lift), and calls already queued under it
+ * move up right away.
+ */
+@Component
+public class JikanRequestScheduler {
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND,
+        WARMUP
+    }
+
+    /** Lowest priority the calls of one unit of work may run at; only ever raised. */
+    public static final class Ceiling {
+
+        private volatile Priority priority;
+
+        private Ceiling(Priority priority) {
+            this.priority = priority;
+        }
+
+        public Priority priority() {
+            return priority;
+        }
+    }
+
+    @Value("${jikan.rate-limit.per-second:3}")
+    private int permitsPerSecond;
+
+    @Value("${jikan.rate-limit.per-minute:60}")
+    private int permitsPerMinute;
+
+    @Value("${warmer.rate-share:0.25}")
+    private double warmupShare;
+
+    @Value("${jikan.http.max-concurrent-requests:8}")
+    private int maxConcurrentRequests;
+
+    @Value("${jikan.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${jikan.retry.base-backoff-ms:1000}")
+    private long baseBackoffMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>();
+
+    // Lets background jobs demote every call they make, however deep
+    private final InheritableThreadLocal<Ceiling> ceiling = new InheritableThreadLocal<>();
+
+    // Caps calls in flight so a slow upstream can't tie up unbounded threads
+    private Semaphore inFlight;
+
+    private TokenBucket secondBucket;
+    private TokenBucket minuteBucket;
+    private TokenBucket warmupBucket;
+    private long pausedUntilNanos;
+    private long sequence;
+
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+
+    @PostConstruct
+    void init() {
+        long now = System.nanoTime();
+        secondBucket = new TokenBucket(permitsPerSecond, TimeUnit.SECONDS.toNanos(1), now);
+        minuteBucket = new TokenBucket(permitsPerMinute, TimeUnit.MINUTES.toNanos(1), now);
+        warmupBucket = new TokenBucket(Math.max(1, (int) (permitsPerMinute * warmupShare)),
+                TimeUnit.MINUTES.toNanos(1), now);
+        pausedUntilNanos = now;
+        inFlight = new Semaphore(maxConcurrentRequests, true);
+
+        meterRegistry.gauge("jikan.scheduler.queue.depth", waiting, queue -> {
+            lock.lock();
+            try {
+                return queue.size();
+            } finally {
+                lock.unlock();
+            }
+        });
+
+        for (Priority priority : Priority.values()) {
+            waitTimers.put(priority, Timer.builder("jikan.scheduler.wait")
+                    .description("Time spent waiting for a Jikan rate-limit permit")
+                    .tag("priority", priority.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    // ==========================================
+    // Public API
+    // ==========================================
+
+    /**
+     * Runs the call once a permit is available, retrying on 429 and 5xx
+     * with Retry-After aware backoff.
+     */
+    public <T> T execute(Priority requested, Supplier<T> call) {
+
+        Ceiling cap = ceiling.get();
+        int attempt = 1;
+
+        while (true) {
+            acquire(requested, cap);
+
+            try {
+                return callBounded(call);
+
+            } catch (HttpStatusCodeException e) {
+                if (!isRetryable(e) || attempt >= maxAttempts) {
+                    throw e;
+                }
+
+                Duration backoff = backoffFor(e, attempt);
+                retryCounter(e).increment();
+
+                if (e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    // Upstream quota is shared, so everyone waits
+                    pauseAll(backoff);
+                } else {
+                    sleep(backoff);
+                }
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Runs work with every Jikan call it makes (including on threads it
+     * starts) demoted to at most the given priority.
+     */
+    public void runAs(Priority priority, Runnable work) {
+        Ceiling previous = ceiling.get();
+        ceiling.set(new Ceiling(priority));
+        try {
+            work.run();
+        } finally {
+            if (previous != null) {
+                ceiling.set(previous);
+            } else {
+                ceiling.remove();
+            }
+        }
+    }
+
+    /** The calling thread's demotion, or null if it runs undemoted. */
+    public Ceiling currentCeiling() {
+        return ceiling.get();
+    }
+
+    /**
+     * Called before waiting on work that runs under the given ceiling:
+     * raises it to the caller's own priority, so a user request that
+     * joins a warm-up load isn't served at warm-up priority.
+     */
+    public void lift(Ceiling target) {
+        Ceiling own = ceiling.get();
+        Priority waiter = own != null ? own.priority : Priority.INTERACTIVE;
+
+        lock.lock();
+        try {
+            if (waiter.compareTo(target.priority) < 0) {
+                target.priority = waiter;
+                // Queued calls under the ceiling re-rank themselves
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==========================================
+    // Admission
+    // ==========================================
+
+    private void acquire(Priority requested, Ceiling cap) {
+
+        long start = System.nanoTime();
+        Priority priority = effective(requested, cap);
+
+        lock.lock();
+        try {
+            Ticket ticket = new Ticket(priority, sequence++);
+            waiting.add(ticket);
+
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+
+                    if (effective(requested, cap) != priority) {
+                        // Lifted while waiting - requeue, keeping our place among equals
+                        priority = effective(requested, cap);
+                        waiting.remove(ticket);
+                        ticket = new Ticket(priority, ticket.sequence());
+                        waiting.add(ticket);
+                    }
+
+                    if (waiting.peek() != ticket) {
+                        // Someone more important is ahead of us
+                        changed.await();
+                        continue;
+                    }
+
+                    long waitNanos = Math.max(pausedUntilNanos - now, 0);
+                    if (waitNanos == 0) {
+                        waitNanos = Math.max(
+                                secondBucket.nanosUntilAvailable(now),
+                                minuteBucket.nanosUntilAvailable(now));
+                    }
+                    if (waitNanos == 0 && priority == Priority.WARMUP) {
+                        waitNanos = warmupBucket.nanosUntilAvailable(now);
+                    }
+
+                    if (waitNanos == 0) {
+                        secondBucket.take();
+                        minuteBucket.take();
+                        if (priority == Priority.WARMUP) {
+                            warmupBucket.take();
+                        }
+                        break;
+                    }
+
+                    changed.awaitNanos(waitNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for Jikan rate limit", e);
+            } finally {
+                waiting.remove(ticket);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        waitTimers.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Priority effective(Priority requested, Ceiling cap) {
+        return cap != null && cap.priority.compareTo(requested) > 0 ? cap.priority : requested;
+    }
+
+    private <T> T callBounded(Supplier<T> call) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a Jikan connection slot", e);
+        }
+
+        try {
+            return call.get();
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private void pauseAll(Duration backoff) {
+        lock.lock();
+        try {
+            pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + backoff.toNanos());
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==========================================
+    // Retry Helpers
+    // ==========================================
+
+    private boolean isRetryable(HttpStatusCodeException e) {
+        int status = e.getStatusCode().value();
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500;
+    }
+
+    private Duration backoffFor(HttpStatusCodeException e, int attempt) {
+
+        // Honour Retry-After when the upstream sends one
+        String retryAfter = e.getResponseHeaders() != null
+                ? e.getResponseHeaders().getFirst("Retry-After")
+                : null;
+
+        if (retryAfter != null) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException ignored) {
+                try {
+                    ZonedDateTime at = ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME);
+                    Duration until = Duration.between(ZonedDateTime.now(at.getZone()), at);
+                    if (!until.isNegative()) {
+                        return until;
+                    }
+                } catch (DateTimeParseException ignoredToo) {
+                    // Fall through to exponential backoff
+                }
+            }
+        }
+
+        return Duration.ofMillis(baseBackoffMs << (attempt - 1));
+    }
+
+    private Counter retryCounter(HttpStatusCodeException e) {
+        return Counter.builder("jikan.scheduler.retries")
+                .description("Jikan calls retried after a 429 or 5xx")
+                .tag("status", String.valueOf(e.getStatusCode().value()))
+                .register(meterRegistry);
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off from Jikan", e);
+        }
+    }
+
+    // ==========================================
+    // Internals
+    // ==========================================
+
+    private record Ticket(Priority priority, long sequence) implements Comparable<Ticket> {
+
+        @Override
+        public int compareTo(Ticket other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Classic token bucket, refilled continuously. Not thread safe on
+     * its own - always used under the scheduler lock.
+     */
+    private static final class TokenBucket {
+
+        private final int capacity;
+        private final double nanosPerToken;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, long periodNanos, long now) {
+            this.capacity = capacity;
+            this.nanosPerToken = (double) periodNanos / capacity;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        long nanosUntilAvailable(long now) {
+            refill(now);
+            if (tokens >= 1.0) {
+                return 0;
+            }
+            return (long) Math.ceil((1.0 - tokens) * nanosPerToken);
+        }
+
+        void take() {
+            tokens -= 1.0;
+        }
+
+        private void refill(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+                lastRefill = now;
+            }
+        }
+    }
+}
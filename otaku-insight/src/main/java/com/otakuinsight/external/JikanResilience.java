@@ -0,0 +1,159 @@
+package com.otakuinsight.external;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead per Jikan endpoint family.
+ *
+ * A failing family (say, episode pages timing out) fails fast on its own
+ * without taking search or manga lookups down with it, and no family can
+ * hold more than its share of waiting callers. Upstream failures come out
+ * as UpstreamUnavailableException / UpstreamTimeoutException; 4xx answers
+ * pass through untouched and count as healthy.
+ */
+@Component
+public class JikanResilience {
+
+    public enum Family {
+        SEARCH,
+        EPISODES,
+        RELATIONS,
+        MANGA
+    }
+
+    @Value("${jikan.circuit.window-size:20}")
+    private int windowSize;
+
+    @Value("${jikan.circuit.min-calls:10}")
+    private int minCalls;
+
+    @Value("${jikan.circuit.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${jikan.circuit.open-duration:30s}")
+    private Duration openDuration;
+
+    @Value("${jikan.bulkhead.max-concurrent:32}")
+    private int bulkheadSize;
+
+    @Value("${jikan.bulkhead.max-wait:2s}")
+    private Duration bulkheadMaxWait;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Family, CircuitBreaker> breakers = new EnumMap<>(Family.class);
+    private final Map<Family, Semaphore> bulkheads = new EnumMap<>(Family.class);
+
+    @PostConstruct
+    void init() {
+        for (Family family : Family.values()) {
+            CircuitBreaker breaker = new CircuitBreaker(
+                    windowSize, minCalls, failureRateThreshold, openDuration.toNanos());
+            breakers.put(family, breaker);
+            bulkheads.put(family, new Semaphore(bulkheadSize, true));
+
+            Gauge.builder("jikan.circuit.state", breaker, b -> b.state().ordinal())
+                    .description("0 = closed, 1 = open, 2 = half-open")
+                    .tag("family", family.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    public <T> T call(Family family, Supplier<T> call) {
+
+        CircuitBreaker breaker = breakers.get(family);
+
+        // Step 1: Fail fast while the circuit is open
+        long waitNanos = breaker.tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            rejected(family, "circuit_open").increment();
+            throw new UpstreamUnavailableException(
+                    "Jikan " + family.name().toLowerCase() + " is unavailable", Duration.ofNanos(waitNanos));
+        }
+
+        // Step 2: Bound how many callers can wait on this family
+        Semaphore bulkhead = bulkheads.get(family);
+        if (!acquire(bulkhead)) {
+            breaker.onIgnored();
+            rejected(family, "bulkhead_full").increment();
+            throw new UpstreamUnavailableException(
+                    "Too many concurrent Jikan " + family.name().toLowerCase() + " calls", bulkheadMaxWait);
+        }
+
+        // Step 3: Call and classify the outcome
+        try {
+            T result = call.get();
+            breaker.onSuccess();
+            return result;
+
+        } catch (HttpStatusCodeException e) {
+            int status = e.getStatusCode().value();
+            if (status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                breaker.onFailure(System.nanoTime());
+                throw new UpstreamUnavailableException("Jikan answered " + status, e);
+            }
+            // A 404 is an answer, not an outage
+            breaker.onSuccess();
+            throw e;
+
+        } catch (ResourceAccessException e) {
+            breaker.onFailure(System.nanoTime());
+            if (isTimeout(e)) {
+                throw new UpstreamTimeoutException("Jikan did not answer in time", e);
+            }
+            throw new UpstreamUnavailableException("Could not reach Jikan", e);
+
+        } catch (RuntimeException | Error e) {
+            breaker.onIgnored();
+            throw e;
+
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquire(Semaphore bulkhead) {
+        try {
+            return bulkhead.tryAcquire(bulkheadMaxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a Jikan bulkhead slot", e);
+        }
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Counter rejected(Family family, String reason) {
+        return Counter.builder("jikan.resilience.rejected")
+                .description("Jikan calls rejected without reaching the upstream")
+                .tag("family", family.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
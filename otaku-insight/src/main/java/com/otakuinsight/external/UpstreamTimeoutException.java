@@ -0,0 +1,11 @@
+package com.otakuinsight.external;
+
+/**
+ * Jikan didn't answer within the configured timeout (answered as 504).
+ */
+public class UpstreamTimeoutException extends UpstreamUnavailableException {
+
+    public UpstreamTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,29 @@
+package com.otakuinsight.external;
+
+import java.time.Duration;
+
+/**
+ * Jikan can't answer right now: it returned 5xx/429, refused the
+ * connection, its circuit is open or its bulkhead is full. Distinct from
+ * "not found" so callers can fall back to stale data and the API can
+ * answer 503 instead of 404.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = null;
+    }
+
+    public UpstreamUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /** When it is worth trying again, if known. */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,56 @@
+package com.otakuinsight.external.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * The handful of anime fields we store. Trailer, broadcast, studios,
+ * genres and the other image sizes are never materialised.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record JikanAnime(
+        @JsonProperty("mal_id") Long malId,
+        String title,
+        @JsonProperty("title_english") String titleEnglish,
+        @JsonProperty("title_japanese") String titleJapanese,
+        @JsonProperty("title_synonyms") List<String> titleSynonyms,
+        Integer episodes,
+        Double score,
+        String status,
+        String synopsis,
+        Images images,
+        Aired aired) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Images(Jpg jpg) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Jpg(@JsonProperty("image_url") String imageUrl) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Aired(Prop prop) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Prop(From from) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record From(Integer year) {
+    }
+
+    public String imageUrl() {
+        return images != null && images.jpg() != null ? images.jpg().imageUrl() : null;
+    }
+
+    public Integer year() {
+        if (aired == null || aired.prop() == null || aired.prop().from() == null) {
+            return null;
+        }
+        return aired.prop().from().year();
+    }
+}
@@ -0,0 +1,11 @@
+package com.otakuinsight.external.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record JikanEpisode(
+        @JsonProperty("mal_id") Integer malId,
+        String title,
+        Double score) {
+}
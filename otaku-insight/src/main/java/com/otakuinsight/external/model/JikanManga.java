@@ -0,0 +1,13 @@
+package com.otakuinsight.external.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record JikanManga(
+        @JsonProperty("mal_id") Long malId,
+        String title,
+        Integer chapters,
+        Integer volumes,
+        String status) {
+}
@@ -0,0 +1,10 @@
+package com.otakuinsight.external.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record JikanPagination(
+        @JsonProperty("last_visible_page") Integer lastVisiblePage,
+        @JsonProperty("has_next_page") Boolean hasNextPage) {
+}
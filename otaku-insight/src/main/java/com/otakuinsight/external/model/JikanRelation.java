@@ -0,0 +1,19 @@
+package com.otakuinsight.external.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record JikanRelation(
+        String relation,
+        List<Entry> entry) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Entry(
+            @JsonProperty("mal_id") Long malId,
+            String type,
+            String name) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.otakuinsight.external.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Jikan v4 envelope. Only data and pagination are decoded; links, meta
+ * and everything else are skipped by the parser without being built.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record JikanResponse<T>(T data, JikanPagination pagination) {
+}
@@ -0,0 +1,14 @@
+package com.otakuinsight.repository;
+
+import com.otakuinsight.entity.AnimeAdaptationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AnimeAdaptationRepository extends JpaRepository<AnimeAdaptationEntity, Long> {
+
+    List<AnimeAdaptationEntity> findByAnimeMalIdOrderByPosition(Long animeMalId);
+
+}
@@ -2,13 +2,21 @@ package com.otakuinsight.repository;
 
 import com.otakuinsight.entity.AnimeEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
 public interface AnimeRepository extends JpaRepository<AnimeEntity, Long> {
 
-    Optional<AnimeEntity> findByTitleContainingIgnoreCase(String title);
+    List<AnimeTitleView> findAllProjectedBy();
 
-}
\ No newline at end of file
+    @Query("select a.malId from AnimeEntity a where a.status = :status")
+    List<Long> findMalIdsByStatus(@Param("status") String status);
+
+    @Query("select a.malId from AnimeEntity a")
+    List<Long> findAllMalIds();
+
+}
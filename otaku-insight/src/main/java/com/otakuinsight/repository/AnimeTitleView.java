@@ -0,0 +1,21 @@
+package com.otakuinsight.repository;
+
+/**
+ * Just the columns the title search index needs, so rebuilding it never
+ * loads synopses.
+ */
+public interface AnimeTitleView {
+
+    Long getMalId();
+
+    String getTitle();
+
+    String getTitleEnglish();
+
+    String getTitleJapanese();
+
+    String getTitleSynonyms();
+
+    Double getScore();
+
+}
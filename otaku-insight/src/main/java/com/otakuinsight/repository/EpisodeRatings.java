@@ -0,0 +1,107 @@
+package com.otakuinsight.repository;
+
+import java.util.Arrays;
+
+/**
+ * Every scored episode of one anime as two packed primitive arrays,
+ * ordered by episode number. Titles are left out; the few that are
+ * needed are looked up separately.
+ *
+ * About 12 bytes per episode, against the hundreds a managed
+ * EpisodeEntity (boxed fields, title, parent reference, persistence
+ * context snapshot) costs.
+ */
+public final class EpisodeRatings {
+
+    private static final EpisodeRatings EMPTY = new EpisodeRatings(new int[0], new double[0]);
+
+    private final int[] episodeNumbers;
+    private final double[] ratings;
+
+    private EpisodeRatings(int[] episodeNumbers, double[] ratings) {
+        this.episodeNumbers = episodeNumbers;
+        this.ratings = ratings;
+    }
+
+    public static EpisodeRatings empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return episodeNumbers.length;
+    }
+
+    public int episodeNumber(int index) {
+        return episodeNumbers[index];
+    }
+
+    /** Rating as stored, on Jikan's 5-point scale. */
+    public double rating(int index) {
+        return ratings[index];
+    }
+
+    /** Position of the episode, or a negative value if it has no rating. */
+    public int indexOf(int episodeNumber) {
+        return Arrays.binarySearch(episodeNumbers, episodeNumber);
+    }
+
+    /** Approximate retained heap, for cache weighing. */
+    public int sizeInBytes() {
+        // Object header and two array headers, then the payload
+        return 16 + 2 * 16 + episodeNumbers.length * (Integer.BYTES + Double.BYTES);
+    }
+
+    /**
+     * Collects rows in episode order; arrays grow by doubling and are
+     * trimmed once on build().
+     */
+    public static final class Builder {
+
+        private int[] episodeNumbers = new int[64];
+        private double[] ratings = new double[64];
+        private int size;
+        private boolean sorted = true;
+
+        public Builder add(int episodeNumber, double rating) {
+            if (size == episodeNumbers.length) {
+                episodeNumbers = Arrays.copyOf(episodeNumbers, size * 2);
+                ratings = Arrays.copyOf(ratings, size * 2);
+            }
+            if (size > 0 && episodeNumber <= episodeNumbers[size - 1]) {
+                sorted = false;
+            }
+            episodeNumbers[size] = episodeNumber;
+            ratings[size] = rating;
+            size++;
+            return this;
+        }
+
+        public EpisodeRatings build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            int[] numbers = Arrays.copyOf(episodeNumbers, size);
+            double[] values = Arrays.copyOf(ratings, size);
+            if (!sorted) {
+                sortByEpisode(numbers, values);
+            }
+            return new EpisodeRatings(numbers, values);
+        }
+
+        private static void sortByEpisode(int[] numbers, double[] values) {
+            // Rare (the query orders rows), so a plain insertion sort will do
+            for (int i = 1; i < numbers.length; i++) {
+                int number = numbers[i];
+                double value = values[i];
+                int j = i - 1;
+                while (j >= 0 && numbers[j] > number) {
+                    numbers[j + 1] = numbers[j];
+                    values[j + 1] = values[j];
+                    j--;
+                }
+                numbers[j + 1] = number;
+                values[j + 1] = value;
+            }
+        }
+    }
+}
@@ -5,11 +5,10 @@ import com.otakuinsight.entity.EpisodeEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
 @Repository
-public interface EpisodeRepository extends JpaRepository<EpisodeEntity, Long> {
+public interface EpisodeRepository extends JpaRepository<EpisodeEntity, Long>,
+        EpisodeRepositoryCustom {
 
-    List<EpisodeEntity> findByAnime(AnimeEntity anime);
+    boolean existsByAnime(AnimeEntity anime);
 
 }
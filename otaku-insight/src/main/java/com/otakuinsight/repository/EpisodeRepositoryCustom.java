@@ -0,0 +1,26 @@
+package com.otakuinsight.repository;
+
+import com.otakuinsight.entity.EpisodeEntity;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface EpisodeRepositoryCustom {
+
+    /**
+     * Inserts new episodes and updates changed ones in JDBC batches.
+     * Idempotent on (anime_mal_id, episode_number), so re-fetching a show
+     * rewrites its rows in place. Returns what was inserted and updated.
+     */
+    EpisodeUpsertResult upsertAll(Collection<EpisodeEntity> episodes);
+
+    /**
+     * Episode numbers and ratings of every scored episode, read straight
+     * into primitive arrays - no entities, no titles.
+     */
+    EpisodeRatings findRatings(Long animeMalId);
+
+    /** Titles of just the given episodes, keyed by episode number. */
+    Map<Integer, String> findTitles(Long animeMalId, Collection<Integer> episodeNumbers);
+
+}
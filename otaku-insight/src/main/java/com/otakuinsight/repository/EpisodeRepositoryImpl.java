@@ -0,0 +1,158 @@
+package com.otakuinsight.repository;
+
+import com.otakuinsight.entity.EpisodeEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Set-based episode persistence. EpisodeEntity uses IDENTITY keys, which
+ * stops Hibernate from batching inserts, so bulk writes bypass the
+ * persistence context and go straight through JdbcTemplate.batchUpdate.
+ * (On MySQL, rewriteBatchedStatements turns each batch into one
+ * multi-row INSERT.)
+ *
+ * Inserts are ON DUPLICATE KEY UPDATE against uk_episodes_anime_episode,
+ * so a row another writer stored after we looked is overwritten rather
+ * than failing the whole page.
+ */
+public class EpisodeRepositoryImpl implements EpisodeRepositoryCustom {
+
+    private static final String SELECT_EXISTING =
+            "SELECT episode_number, title, rating FROM episodes WHERE anime_mal_id = ? AND episode_number IN (";
+
+    private static final String SELECT_RATINGS =
+            "SELECT episode_number, rating FROM episodes "
+                    + "WHERE anime_mal_id = ? AND rating IS NOT NULL ORDER BY episode_number";
+
+    private static final String INSERT_EPISODE =
+            "INSERT INTO episodes (anime_mal_id, episode_number, title, rating) VALUES (?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE title = VALUES(title), rating = VALUES(rating)";
+
+    private static final String UPDATE_EPISODE =
+            "UPDATE episodes SET title = ?, rating = ? WHERE anime_mal_id = ? AND episode_number = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${episodes.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public EpisodeUpsertResult upsertAll(Collection<EpisodeEntity> episodes) {
+
+        // Group by anime so existing rows are read with one query per show
+        Map<Long, List<EpisodeEntity>> byAnime = new LinkedHashMap<>();
+        for (EpisodeEntity episode : episodes) {
+            byAnime.computeIfAbsent(episode.getAnime().getMalId(), id -> new ArrayList<>())
+                    .add(episode);
+        }
+
+        List<EpisodeEntity> inserts = new ArrayList<>();
+        List<EpisodeUpsertResult.Change> updates = new ArrayList<>();
+
+        for (Map.Entry<Long, List<EpisodeEntity>> entry : byAnime.entrySet()) {
+            Map<Integer, EpisodeEntity> existing = findExisting(entry.getKey(), entry.getValue());
+
+            for (EpisodeEntity episode : entry.getValue()) {
+                EpisodeEntity current = existing.get(episode.getEpisodeNumber());
+
+                if (current == null) {
+                    inserts.add(episode);
+                    // Guard against the same episode twice in one call
+                    existing.put(episode.getEpisodeNumber(), episode);
+                } else if (!Objects.equals(current.getRating(), episode.getRating())
+                        || !Objects.equals(current.getTitle(), episode.getTitle())) {
+                    updates.add(new EpisodeUpsertResult.Change(current, episode));
+                }
+            }
+        }
+
+        int[][] inserted = jdbcTemplate.batchUpdate(INSERT_EPISODE, inserts, batchSize, (ps, episode) -> {
+            ps.setLong(1, episode.getAnime().getMalId());
+            ps.setObject(2, episode.getEpisodeNumber(), Types.INTEGER);
+            ps.setString(3, episode.getTitle());
+            ps.setObject(4, episode.getRating(), Types.DOUBLE);
+        });
+
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_EPISODE, updates, batchSize, (ps, change) -> {
+            EpisodeEntity episode = change.after();
+            ps.setString(1, episode.getTitle());
+            ps.setObject(2, episode.getRating(), Types.DOUBLE);
+            ps.setLong(3, episode.getAnime().getMalId());
+            ps.setObject(4, episode.getEpisodeNumber(), Types.INTEGER);
+        });
+
+        // Bypasses Hibernate, so report the round trips ourselves
+        StatementCounter.add(byAnime.size() + inserted.length + updated.length);
+
+        return new EpisodeUpsertResult(inserts, updates);
+    }
+
+    @Override
+    public EpisodeRatings findRatings(Long animeMalId) {
+        EpisodeRatings.Builder ratings = new EpisodeRatings.Builder();
+        jdbcTemplate.query(SELECT_RATINGS,
+                rs -> {
+                    ratings.add(rs.getInt(1), rs.getDouble(2));
+                },
+                animeMalId);
+        StatementCounter.add(1);
+        return ratings.build();
+    }
+
+    @Override
+    public Map<Integer, String> findTitles(Long animeMalId, Collection<Integer> episodeNumbers) {
+        Map<Integer, String> titles = new HashMap<>();
+        if (episodeNumbers.isEmpty()) {
+            return titles;
+        }
+
+        List<Object> args = new ArrayList<>(episodeNumbers.size() + 1);
+        args.add(animeMalId);
+        args.addAll(episodeNumbers);
+
+        jdbcTemplate.query("SELECT episode_number, title FROM episodes WHERE anime_mal_id = ? AND episode_number IN ("
+                        + String.join(", ", Collections.nCopies(episodeNumbers.size(), "?")) + ")",
+                rs -> {
+                    titles.put(rs.getInt(1), rs.getString(2));
+                },
+                args.toArray());
+        StatementCounter.add(1);
+        return titles;
+    }
+
+    // Only the episodes being written, so a long series costs the same per page as a short one
+    private Map<Integer, EpisodeEntity> findExisting(Long animeMalId, List<EpisodeEntity> episodes) {
+        List<Object> args = new ArrayList<>(episodes.size() + 1);
+        args.add(animeMalId);
+        episodes.stream()
+                .map(EpisodeEntity::getEpisodeNumber)
+                .distinct()
+                .forEach(args::add);
+
+        Map<Integer, EpisodeEntity> existing = new HashMap<>();
+        jdbcTemplate.query(SELECT_EXISTING + String.join(", ", Collections.nCopies(args.size() - 1, "?")) + ")",
+                rs -> {
+                    EpisodeEntity row = new EpisodeEntity();
+                    row.setEpisodeNumber(rs.getInt("episode_number"));
+                    row.setTitle(rs.getString("title"));
+                    row.setRating(rs.getObject("rating", Double.class));
+                    existing.put(row.getEpisodeNumber(), row);
+                },
+                args.toArray());
+        return existing;
+    }
+}
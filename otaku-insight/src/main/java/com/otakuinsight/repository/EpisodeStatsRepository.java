@@ -0,0 +1,27 @@
+package com.otakuinsight.repository;
+
+import com.otakuinsight.entity.EpisodeStatsEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface EpisodeStatsRepository extends JpaRepository<EpisodeStatsEntity, Long> {
+
+    // An empty row to lock; the running totals stay null until the first rebuild
+    @Modifying
+    @Query(value = "INSERT INTO episode_stats (anime_mal_id) VALUES (:animeMalId) "
+            + "ON DUPLICATE KEY UPDATE episode_count = episode_count", nativeQuery = true)
+    int insertIfAbsent(@Param("animeMalId") Long animeMalId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from EpisodeStatsEntity s where s.animeMalId = :animeMalId")
+    Optional<EpisodeStatsEntity> findForUpdate(@Param("animeMalId") Long animeMalId);
+
+}
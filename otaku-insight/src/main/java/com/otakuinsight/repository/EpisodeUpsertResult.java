@@ -0,0 +1,20 @@
+package com.otakuinsight.repository;
+
+import com.otakuinsight.entity.EpisodeEntity;
+
+import java.util.List;
+
+/**
+ * What an upsert actually changed: brand-new rows, and the before/after
+ * values of rows that were rewritten. Unchanged rows are not listed.
+ */
+public record EpisodeUpsertResult(List<EpisodeEntity> inserted, List<Change> updated) {
+
+    public record Change(EpisodeEntity before, EpisodeEntity after) {
+    }
+
+    public int written() {
+        return inserted.size() + updated.size();
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.otakuinsight.repository;
+
+import com.otakuinsight.dto.RankedAnimeDTO;
+import com.otakuinsight.dto.RankedEpisodeDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog-wide rankings, pushed down to the database.
+ *
+ * Every query walks an index in leaderboard order and stops after limit
+ * rows, and pages with a keyset (the sort key of the last row seen)
+ * rather than OFFSET, so page 1000 costs the same as page 1. Values are
+ * returned as stored - episode ratings on Jikan's 5-point scale - so the
+ * caller can build the next keyset from the last row.
+ */
+@Repository
+public class LeaderboardRepository {
+
+    /** Position after an episode: its raw rating, then anime and episode number. */
+    public record EpisodeKey(double rating, long animeMalId, int episodeNumber) {
+    }
+
+    /** Position after an anime: the value it's ranked by, then its id. */
+    public record AnimeKey(double value, long malId) {
+    }
+
+    private static final String ANIME_COLUMNS =
+            "a.mal_id, a.title, a.year, a.score, a.status, a.image_url, "
+                    + "s.episode_count, s.average_rating, s.rating_stddev";
+
+    private static final RowMapper<RankedEpisodeDTO> EPISODE_ROW = (rs, rowNum) -> {
+        RankedEpisodeDTO episode = new RankedEpisodeDTO();
+        episode.setAnimeMalId(rs.getLong("anime_mal_id"));
+        episode.setAnimeTitle(rs.getString("anime_title"));
+        episode.setEpisodeNumber(rs.getInt("episode_number"));
+        episode.setTitle(rs.getString("title"));
+        episode.setRating(rs.getDouble("rating"));
+        return episode;
+    };
+
+    private static final RowMapper<RankedAnimeDTO> ANIME_ROW = (rs, rowNum) -> {
+        RankedAnimeDTO anime = new RankedAnimeDTO();
+        anime.setMalId(rs.getLong("mal_id"));
+        anime.setTitle(rs.getString("title"));
+        anime.setYear(rs.getObject("year", Integer.class));
+        anime.setScore(rs.getObject("score", Double.class));
+        anime.setStatus(rs.getString("status"));
+        anime.setImageUrl(rs.getString("image_url"));
+        anime.setRatedEpisodes(rs.getObject("episode_count", Integer.class));
+        anime.setAverageRating(rs.getObject("average_rating", Double.class));
+        anime.setRatingStdDev(rs.getObject("rating_stddev", Double.class));
+        return anime;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Highest-rated episodes of any show; ties go to the lower anime id, then episode. */
+    public List<RankedEpisodeDTO> findTopEpisodes(EpisodeKey after, int limit) {
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT e.anime_mal_id, a.title AS anime_title, e.episode_number, e.title, e.rating "
+                        + "FROM episodes e JOIN anime a ON a.mal_id = e.anime_mal_id "
+                        + "WHERE e.rating IS NOT NULL");
+        List<Object> args = new ArrayList<>();
+
+        if (after != null) {
+            sql.append(" AND (e.rating < ? OR (e.rating = ? AND (e.anime_mal_id > ? "
+                    + "OR (e.anime_mal_id = ? AND e.episode_number > ?))))");
+            args.add(after.rating());
+            args.add(after.rating());
+            args.add(after.animeMalId());
+            args.add(after.animeMalId());
+            args.add(after.episodeNumber());
+        }
+
+        sql.append(" ORDER BY e.rating DESC, e.anime_mal_id, e.episode_number LIMIT ?");
+        args.add(limit);
+
+        return query(sql.toString(), EPISODE_ROW, args);
+    }
+
+    /** Highest MAL score, in one year or (year null) across all years. */
+    public List<RankedAnimeDTO> findTopScored(Integer year, AnimeKey after, int limit) {
+
+        StringBuilder sql = new StringBuilder("SELECT " + ANIME_COLUMNS
+                + " FROM anime a LEFT JOIN episode_stats s ON s.anime_mal_id = a.mal_id"
+                + " WHERE a.score IS NOT NULL");
+        List<Object> args = new ArrayList<>();
+
+        if (year != null) {
+            sql.append(" AND a.year = ?");
+            args.add(year);
+        }
+        if (after != null) {
+            sql.append(" AND (a.score < ? OR (a.score = ? AND a.mal_id > ?))");
+            args.add(after.value());
+            args.add(after.value());
+            args.add(after.malId());
+        }
+
+        sql.append(" ORDER BY a.score DESC, a.mal_id LIMIT ?");
+        args.add(limit);
+
+        return query(sql.toString(), ANIME_ROW, args);
+    }
+
+    /**
+     * Shows whose episode ratings vary the least, among those with at
+     * least minEpisodes rated episodes.
+     */
+    public List<RankedAnimeDTO> findMostConsistent(int minEpisodes, AnimeKey after, int limit) {
+
+        StringBuilder sql = new StringBuilder("SELECT " + ANIME_COLUMNS
+                + " FROM episode_stats s JOIN anime a ON a.mal_id = s.anime_mal_id"
+                + " WHERE s.rating_stddev IS NOT NULL AND s.episode_count >= ?");
+        List<Object> args = new ArrayList<>();
+        args.add(minEpisodes);
+
+        if (after != null) {
+            sql.append(" AND (s.rating_stddev > ? OR (s.rating_stddev = ? AND s.anime_mal_id > ?))");
+            args.add(after.value());
+            args.add(after.value());
+            args.add(after.malId());
+        }
+
+        sql.append(" ORDER BY s.rating_stddev, s.anime_mal_id LIMIT ?");
+        args.add(limit);
+
+        return query(sql.toString(), ANIME_ROW, args);
+    }
+
+    // ==========================================
+    // Internals
+    // ==========================================
+
+    private <T> List<T> query(String sql, RowMapper<T> mapper, List<Object> args) {
+        // Bypasses Hibernate, so report the round trip ourselves
+        StatementCounter.add(1);
+        return jdbcTemplate.query(sql, mapper, args.toArray());
+    }
+}
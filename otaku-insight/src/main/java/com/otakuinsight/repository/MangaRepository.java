@@ -0,0 +1,10 @@
+package com.otakuinsight.repository;
+
+import com.otakuinsight.entity.MangaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MangaRepository extends JpaRepository<MangaEntity, Long> {
+
+}
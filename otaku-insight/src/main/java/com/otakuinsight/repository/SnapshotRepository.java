@@ -0,0 +1,165 @@
+package com.otakuinsight.repository;
+
+import com.otakuinsight.entity.AnimeAdaptationEntity;
+import com.otakuinsight.entity.AnimeEntity;
+import com.otakuinsight.entity.MangaEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk writes for snapshot imports. Anime and manga use assigned ids, so
+ * saveAll() would merge (one SELECT per row) instead of batching; here
+ * each chunk costs one IN query for the existing ids plus one batched
+ * INSERT and one batched UPDATE, like EpisodeRepositoryImpl.upsertAll.
+ */
+@Repository
+public class SnapshotRepository {
+
+    private static final String INSERT_ANIME =
+            "INSERT INTO anime (mal_id, title, title_english, title_japanese, title_synonyms, "
+                    + "episodes, score, status, image_url, year, synopsis) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_ANIME =
+            "UPDATE anime SET title = ?, title_english = ?, title_japanese = ?, title_synonyms = ?, "
+                    + "episodes = ?, score = ?, status = ?, image_url = ?, year = ?, synopsis = ? "
+                    + "WHERE mal_id = ?";
+
+    private static final String INSERT_MANGA =
+            "INSERT INTO manga (mal_id, title, chapters, volumes, status) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_MANGA =
+            "UPDATE manga SET title = ?, chapters = ?, volumes = ?, status = ? WHERE mal_id = ?";
+
+    private static final String INSERT_ADAPTATION =
+            "INSERT INTO anime_adaptations (anime_mal_id, position, manga_mal_id, manga_name) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public int upsertAnime(List<AnimeEntity> anime) {
+        return upsert("anime", anime, AnimeEntity::getMalId, INSERT_ANIME, UPDATE_ANIME, 10,
+                SnapshotRepository::bindAnime);
+    }
+
+    public int upsertManga(List<MangaEntity> manga) {
+        return upsert("manga", manga, MangaEntity::getMalId, INSERT_MANGA, UPDATE_MANGA, 4,
+                SnapshotRepository::bindManga);
+    }
+
+    /**
+     * Replaces the stored adaptations of every anime in animeIds with
+     * the given rows.
+     */
+    public int replaceAdaptations(Collection<Long> animeIds, List<AnimeAdaptationEntity> adaptations) {
+
+        if (animeIds.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.update("DELETE FROM anime_adaptations WHERE anime_mal_id IN (" + placeholders(animeIds.size()) + ")",
+                animeIds.toArray());
+
+        int[][] inserted = jdbcTemplate.batchUpdate(INSERT_ADAPTATION, adaptations, Math.max(adaptations.size(), 1),
+                (ps, adaptation) -> {
+                    ps.setLong(1, adaptation.getAnimeMalId());
+                    ps.setObject(2, adaptation.getPosition(), Types.INTEGER);
+                    ps.setObject(3, adaptation.getMangaMalId(), Types.BIGINT);
+                    ps.setString(4, adaptation.getMangaName());
+                });
+
+        StatementCounter.add(1 + inserted.length);
+        return adaptations.size();
+    }
+
+    // ==========================================
+    // Internals
+    // ==========================================
+
+    @FunctionalInterface
+    private interface Binder<T> {
+        // Binds every column but the id, starting at parameter index first
+        void bind(PreparedStatement ps, T row, int first) throws SQLException;
+    }
+
+    private <T> int upsert(String table, List<T> rows, Function<T, Long> idOf,
+                           String insertSql, String updateSql, int columns, Binder<T> binder) {
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        // A dump may repeat a record - the last copy wins
+        Map<Long, T> byId = new LinkedHashMap<>();
+        for (T row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+
+        Set<Long> existing = findExistingIds(table, new ArrayList<>(byId.keySet()));
+
+        List<T> inserts = new ArrayList<>();
+        List<T> updates = new ArrayList<>();
+        for (T row : byId.values()) {
+            (existing.contains(idOf.apply(row)) ? updates : inserts).add(row);
+        }
+
+        int[][] inserted = jdbcTemplate.batchUpdate(insertSql, inserts, Math.max(inserts.size(), 1), (ps, row) -> {
+            ps.setLong(1, idOf.apply(row));
+            binder.bind(ps, row, 2);
+        });
+
+        int[][] updated = jdbcTemplate.batchUpdate(updateSql, updates, Math.max(updates.size(), 1), (ps, row) -> {
+            binder.bind(ps, row, 1);
+            ps.setLong(columns + 1, idOf.apply(row));
+        });
+
+        // Bypasses Hibernate, so report the round trips ourselves
+        StatementCounter.add(1 + inserted.length + updated.length);
+
+        return byId.size();
+    }
+
+    private Set<Long> findExistingIds(String table, List<Long> ids) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT mal_id FROM " + table + " WHERE mal_id IN (" + placeholders(ids.size()) + ")",
+                Long.class, ids.toArray()));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static void bindAnime(PreparedStatement ps, AnimeEntity anime, int first) throws SQLException {
+        ps.setString(first, anime.getTitle());
+        ps.setString(first + 1, anime.getTitleEnglish());
+        ps.setString(first + 2, anime.getTitleJapanese());
+        ps.setString(first + 3, anime.getTitleSynonyms());
+        ps.setObject(first + 4, anime.getEpisodes(), Types.INTEGER);
+        ps.setObject(first + 5, anime.getScore(), Types.DOUBLE);
+        ps.setString(first + 6, anime.getStatus());
+        ps.setString(first + 7, anime.getImageUrl());
+        ps.setObject(first + 8, anime.getYear(), Types.INTEGER);
+        ps.setString(first + 9, anime.getSynopsis());
+    }
+
+    private static void bindManga(PreparedStatement ps, MangaEntity manga, int first) throws SQLException {
+        ps.setString(first, manga.getTitle());
+        ps.setObject(first + 1, manga.getChapters(), Types.INTEGER);
+        ps.setObject(first + 2, manga.getVolumes(), Types.INTEGER);
+        ps.setString(first + 3, manga.getStatus());
+    }
+}
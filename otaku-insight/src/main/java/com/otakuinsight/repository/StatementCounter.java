@@ -0,0 +1,42 @@
+package com.otakuinsight.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts SQL statements issued on behalf of the current request.
+ *
+ * Hibernate calls inspect() for every statement it prepares; the
+ * JdbcTemplate bulk paths report their round trips through add(). The
+ * counter is inherited by threads the request starts, so fan-out work
+ * counts towards the request that caused it.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final InheritableThreadLocal<AtomicInteger> CURRENT = new InheritableThreadLocal<>();
+
+    public static void begin() {
+        CURRENT.set(new AtomicInteger());
+    }
+
+    /** Statements counted since begin(), or -1 if nothing was counting. */
+    public static int end() {
+        AtomicInteger count = CURRENT.get();
+        CURRENT.remove();
+        return count != null ? count.get() : -1;
+    }
+
+    public static void add(int statements) {
+        AtomicInteger count = CURRENT.get();
+        if (count != null) {
+            count.addAndGet(statements);
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        add(1);
+        return sql;
+    }
+}
@@ -0,0 +1,189 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.dto.AnalysisJobDTO;
+import com.otakuinsight.dto.EpisodeAnalysisDTO;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+/**
+ * One asynchronous episode analysis. Each subscriber has its own queue
+ * of state changes, drained in order on a virtual thread of its own, so
+ * a slow subscriber (an SSE client) only ever delays its own events -
+ * never the crawl, which other requests may be waiting on too.
+ */
+public class AnalysisJob {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private final String id;
+    private final Long animeId;
+    private final Instant createdAt = Instant.now();
+
+    private Status status = Status.QUEUED;
+    private int pagesDone;
+    private Integer totalPages;
+    private EpisodeAnalysisDTO result;
+    private Integer errorStatus;
+    private String error;
+    private Instant completedAt;
+
+    private final List<Subscription> subscribers = new ArrayList<>();
+
+    AnalysisJob(String id, Long animeId) {
+        this.id = id;
+        this.animeId = animeId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getAnimeId() {
+        return animeId;
+    }
+
+    public synchronized boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    public synchronized AnalysisJobDTO snapshot() {
+        AnalysisJobDTO dto = new AnalysisJobDTO();
+        dto.setJobId(id);
+        dto.setAnimeId(animeId);
+        dto.setStatus(status.name());
+        dto.setPagesDone(pagesDone);
+        dto.setTotalPages(totalPages);
+        dto.setResult(result);
+        dto.setErrorStatus(errorStatus);
+        dto.setError(error);
+        dto.setCreatedAt(createdAt);
+        dto.setCompletedAt(completedAt);
+        return dto;
+    }
+
+    /**
+     * Hands the subscriber the current state now and every change after
+     * it, up to and including the final one. Returns a handle that
+     * unsubscribes.
+     */
+    public Runnable subscribe(Consumer<AnalysisJobDTO> subscriber) {
+        Subscription subscription = new Subscription(subscriber);
+        synchronized (this) {
+            // Queued under the lock, so no later change can overtake it
+            subscription.offer(snapshot());
+            if (!isFinished()) {
+                subscribers.add(subscription);
+            }
+        }
+        return () -> {
+            synchronized (this) {
+                subscribers.remove(subscription);
+            }
+            subscription.cancel();
+        };
+    }
+
+    // ==========================================
+    // Transitions (called by AnalysisJobService)
+    // ==========================================
+
+    void running() {
+        update(() -> status = Status.RUNNING);
+    }
+
+    void pageDone(int page, Integer lastPage) {
+        update(() -> {
+            pagesDone = Math.max(pagesDone, page);
+            if (lastPage != null) {
+                totalPages = lastPage;
+            }
+        });
+    }
+
+    void succeeded(EpisodeAnalysisDTO analysis) {
+        update(() -> {
+            status = Status.SUCCEEDED;
+            result = analysis;
+            // A resumed or already-complete crawl may not have reported every page
+            if (totalPages != null) {
+                pagesDone = totalPages;
+            }
+            completedAt = Instant.now();
+        });
+    }
+
+    void failed(int httpStatus, String message) {
+        update(() -> {
+            status = Status.FAILED;
+            errorStatus = httpStatus;
+            error = message;
+            completedAt = Instant.now();
+        });
+    }
+
+    private synchronized void update(Runnable change) {
+        change.run();
+        AnalysisJobDTO state = snapshot();
+        // Only queues - delivery happens on each subscriber's own thread
+        subscribers.forEach(subscription -> subscription.offer(state));
+        if (isFinished()) {
+            subscribers.clear();
+        }
+    }
+
+    private static final class Subscription {
+
+        private final Consumer<AnalysisJobDTO> subscriber;
+        private final Queue<AnalysisJobDTO> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean cancelled;
+
+        Subscription(Consumer<AnalysisJobDTO> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void offer(AnalysisJobDTO state) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                pending.add(state);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            Thread.ofVirtual().start(this::drain);
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            pending.clear();
+        }
+
+        private void drain() {
+            while (true) {
+                AnalysisJobDTO next;
+                synchronized (this) {
+                    next = pending.poll();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    subscriber.accept(next);
+                } catch (RuntimeException e) {
+                    // A broken subscriber gets nothing further
+                    cancel();
+                    return;
+                }
+            }
+        }
+    }
+}
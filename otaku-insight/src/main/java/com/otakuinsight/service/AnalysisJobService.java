@@ -0,0 +1,174 @@
+package com.otakuinsight.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.otakuinsight.dto.EpisodeAnalysisDTO;
+import com.otakuinsight.external.UpstreamTimeoutException;
+import com.otakuinsight.external.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs episode analyses in the background for clients that can't hold a
+ * request open for a long crawl.
+ *
+ * Jobs run on a fixed number of workers with a bounded queue; a full
+ * queue is rejected (RejectedExecutionException) rather than piling up.
+ * A second submit for an anime with a job still queued or running gets
+ * that same job. The work itself is AnimeService.analyzeEpisodes, so a
+ * job also shares a crawl with any blocking request for the same show.
+ *
+ * Finished jobs stay readable for jobs.retention; running ones never
+ * expire.
+ */
+@Service
+public class AnalysisJobService {
+
+    @Autowired
+    private AnimeService animeService;
+
+    @Autowired
+    private CrawlProgress crawlProgress;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jobs.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${jobs.retention:15m}")
+    private Duration retention;
+
+    private ThreadPoolExecutor executor;
+    private Cache<String, AnalysisJob> jobs;
+
+    // Queued or running, by anime - where duplicate submits merge
+    private final Map<Long, AnalysisJob> active = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("analysis-job-", 0).factory());
+
+        jobs = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, AnalysisJob>() {
+                    @Override
+                    public long expireAfterCreate(String id, AnalysisJob job, long currentTime) {
+                        return job.isFinished() ? retention.toNanos() : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, AnalysisJob job, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, job, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, AnalysisJob job, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        Gauge.builder("analysis.jobs.active", active, Map::size)
+                .description("Analysis jobs queued or running")
+                .register(meterRegistry);
+        Gauge.builder("analysis.jobs.queued", executor, pool -> pool.getQueue().size())
+                .description("Analysis jobs waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts an analysis of the anime, or returns the one already queued
+     * or running for it.
+     */
+    public AnalysisJob submit(Long animeId) {
+
+        if (animeId == null || animeId <= 0) {
+            throw new IllegalArgumentException("Invalid anime ID");
+        }
+
+        return active.compute(animeId, (id, existing) -> {
+            // A job that just finished but isn't deregistered yet doesn't count
+            if (existing != null && !existing.isFinished()) {
+                count("merged");
+                return existing;
+            }
+
+            AnalysisJob job = new AnalysisJob(UUID.randomUUID().toString(), id);
+            // Throws when the queue is full, leaving nothing registered
+            executor.execute(() -> run(job));
+            jobs.put(job.getId(), job);
+            count("submitted");
+            return job;
+        });
+    }
+
+    /** The job, or null if it never existed or finished too long ago. */
+    public AnalysisJob find(String jobId) {
+        return jobs.getIfPresent(jobId);
+    }
+
+    private void run(AnalysisJob job) {
+
+        job.running();
+        try (CrawlProgress.Watch watch = crawlProgress.watch(job.getAnimeId(), job::pageDone)) {
+            EpisodeAnalysisDTO analysis = animeService.analyzeEpisodes(job.getAnimeId());
+            job.succeeded(analysis);
+            count("succeeded");
+
+        // Same statuses the blocking endpoint answers with
+        } catch (IllegalArgumentException e) {
+            fail(job, HttpStatus.BAD_REQUEST, e);
+
+        } catch (UpstreamUnavailableException e) {
+            fail(job, e instanceof UpstreamTimeoutException
+                    ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.SERVICE_UNAVAILABLE, e);
+
+        } catch (RuntimeException e) {
+            fail(job, HttpStatus.NOT_FOUND, e);
+
+        } finally {
+            active.remove(job.getAnimeId(), job);
+            // Re-put so the retention clock starts now
+            jobs.put(job.getId(), job);
+        }
+    }
+
+    private void fail(AnalysisJob job, HttpStatus status, RuntimeException e) {
+        job.failed(status.value(), e.getMessage());
+        count("failed");
+    }
+
+    private void count(String outcome) {
+        Counter.builder("analysis.jobs")
+                .description("Analysis jobs by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
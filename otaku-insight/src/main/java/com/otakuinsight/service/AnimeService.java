@@ -1,19 +1,50 @@
 package com.otakuinsight.service;
 
 import com.otakuinsight.dto.AnimeDTO;
+import com.otakuinsight.dto.BatchResultDTO;
 import com.otakuinsight.dto.EpisodeAnalysisDTO;
 import com.otakuinsight.dto.EpisodeDTO;
+import com.otakuinsight.dto.EpisodeRatingsDTO;
+import com.otakuinsight.dto.EpisodeTrendsDTO;
 import com.otakuinsight.entity.AnimeEntity;
-import com.otakuinsight.entity.EpisodeEntity;
+import com.otakuinsight.entity.EpisodeStatsEntity;
 import com.otakuinsight.external.JikanClient;
+import com.otakuinsight.external.UpstreamUnavailableException;
 import com.otakuinsight.repository.AnimeRepository;
+import com.otakuinsight.repository.EpisodeRatings;
 import com.otakuinsight.repository.EpisodeRepository;
+import com.otakuinsight.repository.EpisodeStatsRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,9 +56,111 @@ public class AnimeService {
     @Autowired
     private AnimeRepository animeRepository;
 
+    @Autowired
+    private EpisodeStatsRepository episodeStatsRepository;
+
+    @Autowired
+    private EpisodeStatsService episodeStatsService;
+
+    @Autowired
+    private EpisodeIngestionService episodeIngestionService;
+
+    @Autowired
+    private EpisodeRatingsCache episodeRatingsCache;
+
     @Autowired
     private EpisodeRepository episodeRepository;
 
+    @Autowired
+    private TitleSearchIndex titleSearchIndex;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    static final String AIRING_STATUS = "Currently Airing";
+
+    @Value("${cache.anime.max-weight-bytes:16777216}")
+    private long animeCacheMaxWeight;
+
+    @Value("${cache.anime.ttl:12h}")
+    private Duration animeCacheTtl;
+
+    @Value("${cache.analysis.max-weight-bytes:16777216}")
+    private long analysisCacheMaxWeight;
+
+    @Value("${cache.analysis.finished-ttl:24h}")
+    private Duration finishedAnalysisTtl;
+
+    @Value("${cache.analysis.airing-ttl:6h}")
+    private Duration airingAnalysisTtl;
+
+    @Value("${cache.analysis.stale-ttl:1m}")
+    private Duration staleAnalysisTtl;
+
+    @Value("${cache.analysis.airing-refresh-after:30m}")
+    private Duration airingRefreshAfter;
+
+    @Value("${trends.extremes:5}")
+    private int trendExtremes;
+
+    @Value("${trends.min-deviation:0.3}")
+    private double trendMinDeviation;
+
+    @Value("${batch.max-concurrent-misses:4}")
+    private int batchMaxConcurrentMisses;
+
+    // L1 in front of the JPA tables; misses fall through to DB, then Jikan
+    private Cache<String, AnimeDTO> animeCache;
+    private Cache<Long, CachedAnalysis> analysisCache;
+
+    // Background refreshes may wait on the rate limiter, keep them off the common pool
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void initCaches() {
+        animeCache = Caffeine.newBuilder()
+                .maximumWeight(animeCacheMaxWeight)
+                .weigher((String key, AnimeDTO anime) -> CacheWeights.of(anime))
+                .expireAfterWrite(animeCacheTtl)
+                // Expire on time even when nothing reads the cache - 304s don't
+                .scheduler(Scheduler.systemScheduler())
+                // Synchronous, unlike removalListener - no 304 for an entry already gone
+                .evictionListener((String key, AnimeDTO anime, RemovalCause cause) ->
+                        contentVersions.invalidate(ContentVersions.searchKey(key)))
+                .recordStats()
+                .build();
+
+        analysisCache = Caffeine.newBuilder()
+                .maximumWeight(analysisCacheMaxWeight)
+                .weigher((Long key, CachedAnalysis cached) -> CacheWeights.of(cached.analysis()))
+                .expireAfter(Expiry.writing((Long key, CachedAnalysis cached) ->
+                        cached.stale() ? staleAnalysisTtl
+                                : cached.airing() ? airingAnalysisTtl : finishedAnalysisTtl))
+                .scheduler(Scheduler.systemScheduler())
+                .evictionListener((Long key, CachedAnalysis cached, RemovalCause cause) ->
+                        contentVersions.invalidate(ContentVersions.analysisKey(key)))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, animeCache, "anime.search");
+        CaffeineCacheMetrics.monitor(meterRegistry, analysisCache, "anime.analysis");
+    }
+
+    @PreDestroy
+    void shutdownRefreshes() {
+        refreshExecutor.shutdownNow();
+    }
+
     // ==========================================
     // Search Anime - with DB caching
     // ==========================================
@@ -38,29 +171,78 @@ public class AnimeService {
             throw new IllegalArgumentException("Anime name cannot be empty");
         }
 
-        // Check DB first
-        Optional<AnimeEntity> cached = animeRepository
-                .findByTitleContainingIgnoreCase(animeName);
+        String normalized = animeName.trim().toLowerCase();
+
+        AnimeDTO cached = animeCache.getIfPresent(normalized);
+        if (cached != null) {
+            lookup("search", "cache");
+            return cached;
+        }
+
+        // Concurrent searches for the same name share one lookup
+        AnimeDTO anime = coalescer.execute("search:" + normalized, () -> loadAnime(animeName));
+        if (!anime.isStale()) {
+            cacheAnime(normalized, anime);
+        }
+        return anime;
+    }
+
+    private AnimeDTO loadAnime(String animeName) {
+
+        // Check the local title index first - only a confident match counts
+        Optional<AnimeEntity> cached = titleSearchIndex.findConfidentMatch(animeName)
+                .flatMap(animeRepository::findById);
 
         if (cached.isPresent()) {
             // Found in DB - return instantly!
+            lookup("search", "db");
             return mapEntityToDTO(cached.get());
         }
 
+        if (jikanClient.isOffline()) {
+            // Nothing upstream to ask - the best local match is the answer
+            return bestLocalMatch(animeName)
+                    .map(entity -> {
+                        lookup("search", "db");
+                        return mapEntityToDTO(entity);
+                    })
+                    .orElseThrow(() -> new RuntimeException("Anime not found: " + animeName));
+        }
+
         // Not in DB - call Jikan API
-        AnimeDTO anime = jikanClient.searchAnime(animeName);
+        AnimeDTO anime;
+        try {
+            anime = jikanClient.searchAnime(animeName);
+
+        } catch (UpstreamUnavailableException e) {
+            // Jikan is down - a weaker local match beats an error
+            return bestLocalMatch(animeName)
+                    .map(entity -> {
+                        lookup("search", "stale");
+                        AnimeDTO stale = mapEntityToDTO(entity);
+                        stale.setStale(true);
+                        return stale;
+                    })
+                    .orElseThrow(() -> e);
+        }
 
         if (anime == null) {
             throw new RuntimeException("Anime not found: " + animeName);
         }
 
         // Save to DB for next time
-        AnimeEntity entity = mapDTOToEntity(anime);
-        animeRepository.save(entity);
+        lookup("search", "jikan");
+        saveAnime(mapDTOToEntity(anime));
 
         return anime;
     }
 
+    private Optional<AnimeEntity> bestLocalMatch(String animeName) {
+        return titleSearchIndex.search(animeName, 1).stream()
+                .findFirst()
+                .flatMap(match -> animeRepository.findById(match.malId()));
+    }
+
     // ==========================================
     // Episode Analysis - with DB caching
     // ==========================================
@@ -71,92 +253,485 @@ public class AnimeService {
             throw new IllegalArgumentException("Invalid anime ID");
         }
 
-        // Check if episodes already in DB
-        Optional<AnimeEntity> animeEntity = animeRepository.findById(animeId);
+        CachedAnalysis cached = analysisCache.getIfPresent(animeId);
+        if (cached != null) {
+            lookup("analysis", "cache");
+            refreshIfDue(animeId, cached);
+            return cached.analysis();
+        }
 
-        if (animeEntity.isPresent()) {
-            List<EpisodeEntity> cachedEpisodes = episodeRepository
-                    .findByAnime(animeEntity.get());
+        return load(animeId).analysis();
+    }
 
-            if (!cachedEpisodes.isEmpty()) {
-                // Found in DB - convert and analyze instantly!
-                List<EpisodeDTO> episodeDTOs = cachedEpisodes.stream()
-                        .map(this::mapEpisodeEntityToDTO)
-                        .collect(Collectors.toList());
-                return buildAnalysis(animeEntity.get().getTitle(), episodeDTOs);
+    // One load per anime, run outside the cache - a crawl can take minutes
+    // and must not hold a cache lock that other keys' writes queue behind
+    private CachedAnalysis load(Long animeId) {
+        return coalescer.execute("analysis:" + animeId, () -> {
+            CachedAnalysis cached = analysisCache.getIfPresent(animeId);
+            if (cached != null) {
+                // Cached by a load that finished just before this one started
+                lookup("analysis", "cache");
+                return cached;
             }
+            CachedAnalysis loaded = loadAnalysis(animeId);
+            cacheAnalysis(animeId, loaded);
+            return loaded;
+        });
+    }
+
+    /**
+     * For a conditional GET answered 304 without reading the analysis:
+     * counts as a hit, so an airing show still gets re-scored while its
+     * clients only revalidate.
+     */
+    public void touchAnalysis(Long animeId) {
+        CachedAnalysis cached = analysisCache.getIfPresent(animeId);
+        if (cached != null) {
+            refreshIfDue(animeId, cached);
         }
+    }
+
+    /**
+     * True when an analysis can be answered without crawling Jikan: it is
+     * cached, or every episode page of the show is already stored.
+     */
+    public boolean isAnalysisReady(Long animeId) {
+
+        // Same check as analyzeEpisodes, so async and blocking calls reject alike
+        if (animeId == null || animeId <= 0) {
+            throw new IllegalArgumentException("Invalid anime ID");
+        }
+
+        if (analysisCache.asMap().containsKey(animeId)) {
+            return true;
+        }
+        return animeRepository.findById(animeId)
+                .map(episodeIngestionService::isComplete)
+                .orElse(false);
+    }
+
+    /**
+     * Every scored episode's rating, in episode order. Read from packed
+     * primitive arrays, never from episode entities.
+     */
+    public EpisodeRatingsDTO getRatingCurve(Long animeId) {
+
+        // Same lookup, crawl and validation as an analysis
+        EpisodeAnalysisDTO analysis = analyzeEpisodes(animeId);
+
+        EpisodeRatings ratings = episodeRatingsCache.get(animeId);
+
+        int[] episodeNumbers = new int[ratings.size()];
+        double[] scaled = new double[ratings.size()];
+        for (int i = 0; i < ratings.size(); i++) {
+            episodeNumbers[i] = ratings.episodeNumber(i);
+            scaled[i] = EpisodeStatsAggregator.toTenPointScale(ratings.rating(i));
+        }
+
+        EpisodeRatingsDTO curve = new EpisodeRatingsDTO();
+        curve.setAnimeName(analysis.getAnimeName());
+        curve.setAnimeStatus(analysis.getAnimeStatus());
+        curve.setEpisodeNumbers(episodeNumbers);
+        curve.setRatings(scaled);
+        curve.setStale(analysis.isStale());
+        return curve;
+    }
+
+    private record TrendParams(int window, int segmentSize, int points) {
+    }
+
+    /**
+     * Rolling averages, percentiles, per-cour segments, peaks and slumps
+     * and a downsampled curve, from one pass over the packed ratings.
+     * Cached per parameters until the show's episodes change.
+     */
+    public EpisodeTrendsDTO getTrends(Long animeId, int window, int segmentSize, int points) {
+
+        if (window < 2 || window > 50) {
+            throw new IllegalArgumentException("window must be between 2 and 50");
+        }
+        if (segmentSize < 1 || segmentSize > 500) {
+            throw new IllegalArgumentException("segment must be between 1 and 500");
+        }
+        if (points < 10 || points > 1000) {
+            throw new IllegalArgumentException("points must be between 10 and 1000");
+        }
+
+        // Same lookup, crawl and validation as an analysis
+        EpisodeAnalysisDTO analysis = analyzeEpisodes(animeId);
+
+        EpisodeTrendsDTO computed = episodeRatingsCache.derive(animeId, new TrendParams(window, segmentSize, points),
+                ratings -> computeTrends(animeId, ratings, window, segmentSize, points));
+
+        // The cached value is shared, so the show's details go on a copy
+        EpisodeTrendsDTO trends = copyOf(computed);
+        trends.setAnimeName(analysis.getAnimeName());
+        trends.setAnimeStatus(analysis.getAnimeStatus());
+        trends.setStale(analysis.isStale());
+        return trends;
+    }
+
+    private EpisodeTrendsDTO computeTrends(Long animeId, EpisodeRatings ratings,
+                                           int window, int segmentSize, int points) {
+
+        EpisodeTrendsDTO trends = EpisodeTrendAnalyzer.analyze(ratings, window, segmentSize, points,
+                trendExtremes, trendMinDeviation);
+
+        // Titles for just the handful of peaks and slumps
+        List<Integer> numbers = new ArrayList<>();
+        trends.getPeaks().forEach(episode -> numbers.add(episode.getEpisodeNumber()));
+        trends.getSlumps().forEach(episode -> numbers.add(episode.getEpisodeNumber()));
+        if (!numbers.isEmpty()) {
+            Map<Integer, String> titles = episodeRepository.findTitles(animeId, numbers);
+            trends.getPeaks().forEach(episode -> episode.setTitle(titles.get(episode.getEpisodeNumber())));
+            trends.getSlumps().forEach(episode -> episode.setTitle(titles.get(episode.getEpisodeNumber())));
+        }
+        return trends;
+    }
+
+    private static EpisodeTrendsDTO copyOf(EpisodeTrendsDTO source) {
+        EpisodeTrendsDTO copy = new EpisodeTrendsDTO();
+        copy.setTotalEpisodes(source.getTotalEpisodes());
+        copy.setP10(source.getP10());
+        copy.setP25(source.getP25());
+        copy.setMedian(source.getMedian());
+        copy.setP75(source.getP75());
+        copy.setP90(source.getP90());
+        copy.setRollingWindow(source.getRollingWindow());
+        copy.setSegmentSize(source.getSegmentSize());
+        copy.setSegments(source.getSegments());
+        copy.setPeaks(source.getPeaks());
+        copy.setSlumps(source.getSlumps());
+        copy.setCurve(source.getCurve());
+        return copy;
+    }
+
+    private CachedAnalysis loadAnalysis(Long animeId) {
+
+        // Check DB first, otherwise fetch and store the anime record
+        Optional<AnimeEntity> stored = phase("lookup", () -> animeRepository.findById(animeId));
+        AnimeEntity anime = stored.orElseGet(() -> phase("fetch",
+                () -> coalescer.execute("anime:" + animeId, () -> fetchAndSaveAnime(animeId))));
+
+        // Crawl (or resume) episode pages; each page is persisted as it arrives
+        boolean complete = episodeIngestionService.isComplete(anime);
+        if (!complete) {
+            try {
+                phase("ingest", () -> ingest(anime));
+
+            } catch (UpstreamUnavailableException e) {
+                // Serve the pages we already have until Jikan is back
+                lookup("analysis", "stale");
+                return analyzeStoredEpisodesStale(anime, e);
+            }
+        }
+
+        lookup("analysis", stored.isPresent() && complete ? "db" : "jikan");
+        return phase("build", () -> analyzeStoredEpisodes(anime));
+    }
+
+    // Cold loads, reloads and the airing refresher all write through here,
+    // so one anime's episodes only ever have a single writer at a time
+    private int ingest(AnimeEntity anime) {
+        return coalescer.execute("episodes:" + anime.getMalId(), () -> episodeIngestionService.ingest(anime));
+    }
+
+    private AnimeEntity fetchAndSaveAnime(Long animeId) {
 
-        // Not in DB - fetch from Jikan API
         AnimeDTO animeInfo = jikanClient.searchAnimeById(animeId);
-        List<EpisodeDTO> episodes = jikanClient.fetchAllEpisodes(animeId);
 
-        if (episodes == null || episodes.isEmpty()) {
-            throw new RuntimeException("No episodes found for anime ID: " + animeId);
+        if (animeInfo == null) {
+            throw new RuntimeException("Anime not found for ID: " + animeId);
         }
 
-        // Save anime to DB if not exists
-        AnimeEntity savedAnime;
-        if (animeEntity.isPresent()) {
-            savedAnime = animeEntity.get();
-        } else {
-            savedAnime = mapDTOToEntity(animeInfo);
-            animeRepository.save(savedAnime);
+        return saveAnime(mapDTOToEntity(animeInfo));
+    }
+
+    private AnimeEntity saveAnime(AnimeEntity entity) {
+        AnimeEntity saved = animeRepository.save(entity);
+        titleSearchIndex.index(saved);
+        return saved;
+    }
+
+    private CachedAnalysis analyzeStoredEpisodes(AnimeEntity anime) {
+
+        // Stats are maintained on write; rebuild covers rows stored before that
+        EpisodeStatsEntity stats = episodeStatsRepository.findById(anime.getMalId())
+                .orElseGet(() -> episodeStatsService.rebuild(anime.getMalId()));
+
+        if (stats.getEpisodeCount() == null || stats.getEpisodeCount() == 0) {
+            throw new RuntimeException("No episodes found for anime ID: " + anime.getMalId());
         }
 
-        // Save all episodes to DB
-        for (EpisodeDTO ep : episodes) {
-            EpisodeEntity episodeEntity = new EpisodeEntity();
-            episodeEntity.setEpisodeNumber(ep.getEpisodeNumber());
-            episodeEntity.setTitle(ep.getTitle());
-            episodeEntity.setRating(ep.getRating());
-            episodeEntity.setAnime(savedAnime);
-            episodeRepository.save(episodeEntity);
+        return new CachedAnalysis(
+                buildAnalysis(anime, stats),
+                isAiring(anime.getStatus()),
+                false);
+    }
+
+    private CachedAnalysis analyzeStoredEpisodesStale(AnimeEntity anime, UpstreamUnavailableException cause) {
+
+        EpisodeStatsEntity stats = episodeStatsRepository.findById(anime.getMalId()).orElse(null);
+
+        if (stats == null || stats.getEpisodeCount() == null || stats.getEpisodeCount() == 0) {
+            throw cause;
         }
 
-        return buildAnalysis(animeInfo != null ? animeInfo.getTitle() : "", episodes);
+        EpisodeAnalysisDTO analysis = buildAnalysis(anime, stats);
+        analysis.setStale(true);
+        return new CachedAnalysis(analysis, isAiring(anime.getStatus()), true);
     }
 
     // ==========================================
-    // Analysis Logic (same as before)
+    // Batch lookups - one IN query, only misses go upstream
     // ==========================================
 
-    private EpisodeAnalysisDTO buildAnalysis(String animeName,
-                                             List<EpisodeDTO> episodes) {
+    public void searchAnimeBatch(Collection<String> names, Consumer<BatchResultDTO<AnimeDTO>> sink) {
+
+        try (BatchPipeline<AnimeDTO> pipeline = new BatchPipeline<>(batchMaxConcurrentMisses, sink)) {
+
+            Map<String, Long> indexed = new LinkedHashMap<>();
+            List<String> misses = new ArrayList<>();
+
+            for (String name : names) {
+                AnimeDTO cached = name != null
+                        ? animeCache.getIfPresent(name.trim().toLowerCase())
+                        : null;
+
+                if (cached != null) {
+                    lookup("search", "cache");
+                    pipeline.emit(name, cached);
+                } else if (name == null || name.isBlank()) {
+                    // Let the single-item path reject it the usual way
+                    misses.add(name);
+                } else {
+                    titleSearchIndex.findConfidentMatch(name).ifPresentOrElse(
+                            malId -> indexed.put(name, malId),
+                            () -> misses.add(name));
+                }
+            }
 
-        EpisodeAnalysisDTO analysis = new EpisodeAnalysisDTO();
-        analysis.setAnimeName(animeName);
-        analysis.setTotalEpisodes(episodes.size());
+            // Everything the title index resolved comes back in one query
+            Map<Long, AnimeEntity> stored = findAllById(indexed.values());
+
+            indexed.forEach((name, malId) -> {
+                AnimeEntity entity = stored.get(malId);
+                if (entity == null) {
+                    misses.add(name);
+                    return;
+                }
+                lookup("search", "db");
+                AnimeDTO anime = mapEntityToDTO(entity);
+                cacheAnime(name.trim().toLowerCase(), anime);
+                pipeline.emit(name, anime);
+            });
+
+            for (String name : misses) {
+                pipeline.submit(name, () -> searchAnime(name));
+            }
+        }
+    }
 
-        episodes.forEach(ep -> ep.setRating(
-                Math.round((ep.getRating() * 2) * 100.0) / 100.0
-        ));
+    public void analyzeEpisodesBatch(Collection<Long> animeIds,
+                                     Consumer<BatchResultDTO<EpisodeAnalysisDTO>> sink) {
 
-        double average = episodes.stream()
-                .mapToDouble(EpisodeDTO::getRating)
-                .average()
-                .orElse(0.0);
-        analysis.setAverageRating(Math.round(average * 100.0) / 100.0);
+        try (BatchPipeline<EpisodeAnalysisDTO> pipeline = new BatchPipeline<>(batchMaxConcurrentMisses, sink)) {
+
+            List<Long> uncached = new ArrayList<>();
+
+            for (Long animeId : animeIds) {
+                CachedAnalysis cached = animeId != null ? analysisCache.getIfPresent(animeId) : null;
+                if (cached != null) {
+                    lookup("analysis", "cache");
+                    refreshIfDue(animeId, cached);
+                    pipeline.emit(animeId, cached.analysis());
+                } else {
+                    uncached.add(animeId);
+                }
+            }
+
+            // Anime, stats and crawl state for all of them - three IN queries
+            List<Long> valid = uncached.stream()
+                    .filter(animeId -> animeId != null && animeId > 0)
+                    .toList();
+            Map<Long, AnimeEntity> stored = findAllById(valid);
+            Map<Long, EpisodeStatsEntity> stats = episodeStatsRepository.findAllById(stored.keySet()).stream()
+                    .collect(Collectors.toMap(EpisodeStatsEntity::getAnimeMalId, Function.identity()));
+            Set<Long> incomplete = episodeIngestionService.findIncomplete(stats.keySet());
+
+            for (Long animeId : uncached) {
+                AnimeEntity anime = animeId != null ? stored.get(animeId) : null;
+                EpisodeStatsEntity animeStats = animeId != null ? stats.get(animeId) : null;
+
+                if (anime != null && animeStats != null && !incomplete.contains(animeId)
+                        && animeStats.getEpisodeCount() != null && animeStats.getEpisodeCount() > 0) {
+                    CachedAnalysis analysis = new CachedAnalysis(
+                            buildAnalysis(anime, animeStats),
+                            isAiring(anime.getStatus()),
+                            false);
+                    cacheAnalysis(animeId, analysis);
+                    lookup("analysis", "db");
+                    pipeline.emit(animeId, analysis.analysis());
+                } else {
+                    // Unknown anime or unfinished crawl - the single-item path handles it
+                    pipeline.submit(animeId, () -> analyzeEpisodes(animeId));
+                }
+            }
+        }
+    }
+
+    private Map<Long, AnimeEntity> findAllById(Collection<Long> animeIds) {
+        if (animeIds.isEmpty()) {
+            return Map.of();
+        }
+        return animeRepository.findAllById(new HashSet<>(animeIds)).stream()
+                .collect(Collectors.toMap(AnimeEntity::getMalId, Function.identity()));
+    }
+
+    // ==========================================
+    // Refresh-ahead for airing shows
+    // ==========================================
+
+    // A hit on an airing show past its refresh interval re-scores it in the
+    // background. Finished shows are never refreshed, only expired, and a
+    // failed refresh leaves the entry to its original expiry
+    private void refreshIfDue(Long animeId, CachedAnalysis cached) {
+        if (!cached.airing() || cached.stale()
+                || System.nanoTime() - cached.cachedAt() < airingRefreshAfter.toNanos()
+                || !refreshing.add(animeId)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                refreshAiring(animeId);
+            } catch (RuntimeException e) {
+                // Keep serving the cached analysis; the next hit tries again
+            } finally {
+                refreshing.remove(animeId);
+            }
+        });
+    }
+
+    /**
+     * Re-scores an airing show whether or not it is currently cached;
+     * used by the scheduled refresher.
+     */
+    public void refreshAiring(Long animeId) {
+        CachedAnalysis rescored = rescore(animeId);
+        if (rescored != null) {
+            cacheAnalysis(animeId, rescored);
+        }
+    }
+
+    private CachedAnalysis rescore(Long animeId) {
+
+        AnimeDTO animeInfo = jikanClient.searchAnimeById(animeId);
+
+        if (animeInfo == null) {
+            return null;
+        }
 
-        EpisodeDTO highest = episodes.stream()
-                .max(Comparator.comparingDouble(EpisodeDTO::getRating))
-                .orElse(null);
-        analysis.setHighestRatedEpisode(highest);
+        // Latest score/status, then only the newest episode pages
+        AnimeEntity anime = saveAnime(mapDTOToEntity(animeInfo));
+        ingest(anime);
 
-        EpisodeDTO lowest = episodes.stream()
-                .min(Comparator.comparingDouble(EpisodeDTO::getRating))
-                .orElse(null);
-        analysis.setLowestRatedEpisode(lowest);
+        return analyzeStoredEpisodes(anime);
+    }
+
+    /**
+     * Stores metadata we already have from a list endpoint (season, top)
+     * and crawls the episodes, so the first visitor gets a cache hit.
+     */
+    public void preload(AnimeDTO anime) {
+        saveAnime(mapDTOToEntity(anime));
+        warm(anime.getMalId());
+    }
 
-        long above9 = episodes.stream()
-                .filter(episode -> episode.getRating() >= 9.0)
-                .count();
-        analysis.setEpisodesAbove9(above9);
+    /**
+     * Caches an analysis for the catalog warmer. Shares the single-flight
+     * load with user requests; a user joining a warm-up load lifts it to
+     * the user's own priority.
+     */
+    public void warm(Long animeId) {
+        if (!analysisCache.asMap().containsKey(animeId)) {
+            load(animeId);
+        }
+    }
 
-        long above8 = episodes.stream()
-                .filter(episode -> episode.getRating() >= 8.0)
-                .count();
-        analysis.setEpisodesAbove8(above8);
+    public List<Long> findAiringIds() {
+        return animeRepository.findMalIdsByStatus(AIRING_STATUS);
+    }
+
+    // ==========================================
+    // Metrics
+    // ==========================================
+
+    // Hit ratio split by where the answer came from: cache, db, jikan or stale
+    private void lookup(String operation, String source) {
+        Counter.builder("anime.lookups")
+                .description("Anime lookups by the layer that answered them")
+                .tag("operation", operation)
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Timer + trace span per step of a cold analysis
+    private <T> T phase(String phase, Supplier<T> work) {
+        return Observation.createNotStarted("anime.analysis.phase", observationRegistry)
+                .lowCardinalityKeyValue("phase", phase)
+                .observe(work);
+    }
+
+    // ==========================================
+    // Cache writes - a replaced value's ETag is dropped in the same step
+    // ==========================================
+
+    private void cacheAnime(String normalizedName, AnimeDTO anime) {
+        if (animeCache.asMap().put(normalizedName, anime) != null) {
+            contentVersions.invalidate(ContentVersions.searchKey(normalizedName));
+        }
+    }
+
+    private void cacheAnalysis(Long animeId, CachedAnalysis analysis) {
+        if (analysisCache.asMap().put(animeId, analysis) != null) {
+            contentVersions.invalidate(ContentVersions.analysisKey(animeId));
+        }
+    }
+
+    private boolean isAiring(String status) {
+        return AIRING_STATUS.equalsIgnoreCase(status);
+    }
+
+    private record CachedAnalysis(EpisodeAnalysisDTO analysis, boolean airing, boolean stale, long cachedAt) {
+
+        CachedAnalysis(EpisodeAnalysisDTO analysis, boolean airing, boolean stale) {
+            this(analysis, airing, stale, System.nanoTime());
+        }
+    }
+
+    // ==========================================
+    // Analysis Logic
+    // ==========================================
+
+    private EpisodeAnalysisDTO buildAnalysis(AnimeEntity anime,
+                                             EpisodeStatsEntity stats) {
+
+        EpisodeAnalysisDTO analysis = new EpisodeAnalysisDTO();
+        analysis.setAnimeName(anime.getTitle());
+        analysis.setAnimeStatus(anime.getStatus());
+        analysis.setTotalEpisodes(stats.getEpisodeCount());
+
+        double average = stats.getRatingSum() / stats.getEpisodeCount();
+        analysis.setAverageRating(Math.round(average * 100.0) / 100.0);
+
+        analysis.setHighestRatedEpisode(toEpisodeDTO(
+                stats.getMaxEpisodeNumber(), stats.getMaxEpisodeTitle(), stats.getMaxRating()));
+        analysis.setLowestRatedEpisode(toEpisodeDTO(
+                stats.getMinEpisodeNumber(), stats.getMinEpisodeTitle(), stats.getMinRating()));
+
+        analysis.setEpisodesAbove9((long) stats.getEpisodesAbove9());
+        analysis.setEpisodesAbove8((long) stats.getEpisodesAbove8());
 
         return analysis;
     }
@@ -169,6 +744,11 @@ public class AnimeService {
         AnimeDTO dto = new AnimeDTO();
         dto.setMalId(entity.getMalId());
         dto.setTitle(entity.getTitle());
+        dto.setTitleEnglish(entity.getTitleEnglish());
+        dto.setTitleJapanese(entity.getTitleJapanese());
+        if (entity.getTitleSynonyms() != null) {
+            dto.setTitleSynonyms(List.of(entity.getTitleSynonyms().split("\n")));
+        }
         dto.setEpisodes(entity.getEpisodes());
         dto.setScore(entity.getScore());
         dto.setStatus(entity.getStatus());
@@ -178,10 +758,16 @@ public class AnimeService {
         return dto;
     }
 
-    private AnimeEntity mapDTOToEntity(AnimeDTO dto) {
+    // Shared with SnapshotImporter
+    static AnimeEntity mapDTOToEntity(AnimeDTO dto) {
         AnimeEntity entity = new AnimeEntity();
         entity.setMalId(dto.getMalId());
         entity.setTitle(dto.getTitle());
+        entity.setTitleEnglish(dto.getTitleEnglish());
+        entity.setTitleJapanese(dto.getTitleJapanese());
+        if (dto.getTitleSynonyms() != null && !dto.getTitleSynonyms().isEmpty()) {
+            entity.setTitleSynonyms(String.join("\n", dto.getTitleSynonyms()));
+        }
         entity.setEpisodes(dto.getEpisodes());
         entity.setScore(dto.getScore());
         entity.setStatus(dto.getStatus());
@@ -191,11 +777,11 @@ public class AnimeService {
         return entity;
     }
 
-    private EpisodeDTO mapEpisodeEntityToDTO(EpisodeEntity entity) {
+    private EpisodeDTO toEpisodeDTO(Integer episodeNumber, String title, Double rating) {
         EpisodeDTO dto = new EpisodeDTO();
-        dto.setEpisodeNumber(entity.getEpisodeNumber());
-        dto.setTitle(entity.getTitle());
-        dto.setRating(entity.getRating());
+        dto.setEpisodeNumber(episodeNumber);
+        dto.setTitle(title);
+        dto.setRating(rating);
         return dto;
     }
 
@@ -0,0 +1,119 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.dto.BatchResultDTO;
+import com.otakuinsight.external.UpstreamTimeoutException;
+import com.otakuinsight.external.UpstreamUnavailableException;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Delivers batch results to a sink as soon as each one is known.
+ *
+ * Local hits are emitted directly by the caller. Misses run on virtual
+ * threads, at most maxConcurrency at a time, so one large batch can't
+ * crowd single lookups out of the Jikan queue. The sink sees one result
+ * at a time, in completion order. Closing waits for every miss.
+ */
+final class BatchPipeline<T> implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final Consumer<BatchResultDTO<T>> sink;
+
+    // Not synchronized - that would pin the virtual thread while it writes
+    private final ReentrantLock sinkLock = new ReentrantLock();
+    private volatile RuntimeException sinkFailure;
+
+    BatchPipeline(int maxConcurrency, Consumer<BatchResultDTO<T>> sink) {
+        this.permits = new Semaphore(maxConcurrency);
+        this.sink = sink;
+    }
+
+    void emit(Object key, T value) {
+        deliver(result(key, HttpStatus.OK, value, null));
+    }
+
+    void submit(Object key, Supplier<T> work) {
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing batch lookups", e);
+        }
+
+        try {
+            failIfSinkBroken();
+            executor.execute(() -> {
+                try {
+                    deliver(run(key, work));
+                } catch (RuntimeException e) {
+                    // Client went away - stop doing work nobody will read
+                    sinkFailure = e;
+                    executor.shutdownNow();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            failIfSinkBroken();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+        failIfSinkBroken();
+    }
+
+    private BatchResultDTO<T> run(Object key, Supplier<T> work) {
+        try {
+            return result(key, HttpStatus.OK, work.get(), null);
+
+        } catch (IllegalArgumentException e) {
+            return result(key, HttpStatus.BAD_REQUEST, null, e.getMessage());
+
+        } catch (UpstreamTimeoutException e) {
+            return result(key, HttpStatus.GATEWAY_TIMEOUT, null, e.getMessage());
+
+        } catch (UpstreamUnavailableException e) {
+            return result(key, HttpStatus.SERVICE_UNAVAILABLE, null, e.getMessage());
+
+        } catch (RuntimeException e) {
+            return result(key, HttpStatus.NOT_FOUND, null, e.getMessage());
+        }
+    }
+
+    private void deliver(BatchResultDTO<T> result) {
+        sinkLock.lock();
+        try {
+            sink.accept(result);
+        } finally {
+            sinkLock.unlock();
+        }
+    }
+
+    private void failIfSinkBroken() {
+        if (sinkFailure != null) {
+            throw sinkFailure;
+        }
+    }
+
+    private BatchResultDTO<T> result(Object key, HttpStatus status, T data, String error) {
+        BatchResultDTO<T> result = new BatchResultDTO<>();
+        result.setKey(key);
+        result.setStatus(status.value());
+        result.setData(data);
+        result.setError(error);
+        return result;
+    }
+}
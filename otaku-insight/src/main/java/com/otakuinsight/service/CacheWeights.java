@@ -0,0 +1,68 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.dto.AnimeDTO;
+import com.otakuinsight.dto.EpisodeAnalysisDTO;
+import com.otakuinsight.dto.EpisodeDTO;
+import com.otakuinsight.dto.MangaInfoDTO;
+
+import java.util.List;
+
+/**
+ * Rough heap size estimates used as Caffeine weights, so the caches are
+ * bounded by memory rather than entry count (a synopsis-heavy anime
+ * costs more than a manga summary).
+ */
+final class CacheWeights {
+
+    private static final int OBJECT_OVERHEAD = 64;
+
+    private CacheWeights() {
+    }
+
+    static int of(AnimeDTO anime) {
+        return OBJECT_OVERHEAD
+                + chars(anime.getTitle())
+                + chars(anime.getTitleEnglish())
+                + chars(anime.getTitleJapanese())
+                + chars(anime.getTitleSynonyms())
+                + chars(anime.getSynopsis())
+                + chars(anime.getImageUrl())
+                + chars(anime.getStatus());
+    }
+
+    static int of(EpisodeAnalysisDTO analysis) {
+        return OBJECT_OVERHEAD
+                + chars(analysis.getAnimeName())
+                + of(analysis.getHighestRatedEpisode())
+                + of(analysis.getLowestRatedEpisode());
+    }
+
+    static int of(MangaInfoDTO manga) {
+        return OBJECT_OVERHEAD
+                + chars(manga.getAnimeTitle())
+                + chars(manga.getMangaTitle())
+                + chars(manga.getMangaStatus())
+                + chars(manga.getContinueFromChapter())
+                + chars(manga.getNote());
+    }
+
+    private static int of(EpisodeDTO episode) {
+        return episode == null ? 0 : OBJECT_OVERHEAD + chars(episode.getTitle());
+    }
+
+    private static int chars(List<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        int total = OBJECT_OVERHEAD;
+        for (String value : values) {
+            total += chars(value);
+        }
+        return total;
+    }
+
+    private static int chars(String value) {
+        // Latin-1 compact strings dominate, so roughly a byte per char
+        return value == null ? 0 : 40 + value.length();
+    }
+}
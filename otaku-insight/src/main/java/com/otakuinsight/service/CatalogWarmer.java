@@ -0,0 +1,141 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.dto.AnimeDTO;
+import com.otakuinsight.external.JikanClient;
+import com.otakuinsight.external.JikanRequestScheduler;
+import com.otakuinsight.external.JikanRequestScheduler.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Fills the database and caches ahead of demand.
+ *
+ * Each cycle preloads the most requested titles, MAL's top anime and the
+ * current season, in that order, with their episodes and (optionally)
+ * manga adaptations. A second, shorter cycle re-scores airing shows by
+ * re-reading only their newest episode page. All Jikan calls run at
+ * WARMUP priority, which the scheduler caps to warmer.rate-share of the
+ * per-minute budget and only admits when no user request is waiting.
+ * A user request that joins a crawl or lookup the warmer started lifts
+ * it to the user's priority (see RequestCoalescer).
+ */
+@Component
+@ConditionalOnProperty(name = "warmer.enabled", havingValue = "true")
+public class CatalogWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogWarmer.class);
+
+    @Autowired
+    private JikanClient jikanClient;
+
+    @Autowired
+    private JikanRequestScheduler scheduler;
+
+    @Autowired
+    private AnimeService animeService;
+
+    @Autowired
+    private MangaService mangaService;
+
+    @Autowired
+    private DemandTracker demandTracker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${warmer.recent-limit:50}")
+    private int recentLimit;
+
+    @Value("${warmer.top-limit:50}")
+    private int topLimit;
+
+    @Value("${warmer.season-limit:50}")
+    private int seasonLimit;
+
+    @Value("${warmer.manga:true}")
+    private boolean warmManga;
+
+    @Scheduled(initialDelayString = "${warmer.initial-delay:1m}", fixedDelayString = "${warmer.interval:6h}")
+    public void warmCatalog() {
+        scheduler.runAs(Priority.WARMUP, () -> {
+
+            // Popular first, so a short budget still covers what matters
+            Map<Long, AnimeDTO> candidates = new LinkedHashMap<>();
+            demandTracker.mostRequested(recentLimit).forEach(id -> candidates.put(id, null));
+            addAll(candidates, "top", () -> jikanClient.fetchTopAnime(topLimit));
+            addAll(candidates, "season", () -> jikanClient.fetchCurrentSeason(seasonLimit));
+
+            candidates.forEach(this::warm);
+            log.info("Catalog warm-up finished: {} titles", candidates.size());
+        });
+    }
+
+    @Scheduled(initialDelayString = "${warmer.initial-delay:1m}",
+            fixedDelayString = "${warmer.airing-refresh-interval:1h}")
+    public void refreshAiring() {
+        scheduler.runAs(Priority.WARMUP, () -> {
+            for (Long animeId : animeService.findAiringIds()) {
+                try {
+                    animeService.refreshAiring(animeId);
+                    counter("rescored").increment();
+                } catch (RuntimeException e) {
+                    counter("failed").increment();
+                    log.debug("Re-scoring anime {} failed: {}", animeId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void warm(Long animeId, AnimeDTO listed) {
+        try {
+            if (listed != null) {
+                // Metadata came with the list - no extra lookup needed
+                animeService.preload(listed);
+            } else {
+                animeService.warm(animeId);
+            }
+            counter("warmed").increment();
+        } catch (RuntimeException e) {
+            counter("failed").increment();
+            log.debug("Warming anime {} failed: {}", animeId, e.getMessage());
+            return;
+        }
+
+        if (warmManga) {
+            try {
+                mangaService.getMangaInfo(animeId);
+            } catch (RuntimeException e) {
+                // Plenty of anime have no manga adaptation
+            }
+        }
+    }
+
+    private void addAll(Map<Long, AnimeDTO> candidates, String source, Supplier<List<AnimeDTO>> fetch) {
+        try {
+            for (AnimeDTO anime : fetch.get()) {
+                candidates.putIfAbsent(anime.getMalId(), anime);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not list {} anime for warm-up: {}", source, e.getMessage());
+        }
+    }
+
+    private Counter counter(String outcome) {
+        return Counter.builder("warmer.titles")
+                .description("Titles processed by the catalog warmer")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,96 @@
+package com.otakuinsight.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the ETag last served for each cached response, so a conditional
+ * GET can be answered with 304 without going through the services.
+ *
+ * Every change to a cached value (replace, refresh, expiry, eviction)
+ * moves the key to a new generation and drops its ETag. A response only
+ * records its ETag if the generation it started under is still current,
+ * so a load that raced with a refresh can't pin an outdated tag.
+ */
+@Component
+public class ContentVersions {
+
+    public record Version(long generation, String etag, boolean stable) {
+    }
+
+    @Value("${http-cache.max-entries:100000}")
+    private long maxEntries;
+
+    private final AtomicLong generations = new AtomicLong();
+    private Cache<String, Version> versions;
+
+    @PostConstruct
+    void initCache() {
+        versions = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    public static String searchKey(String animeName) {
+        return "search:" + animeName.trim().toLowerCase();
+    }
+
+    public static String analysisKey(Long animeId) {
+        return "analysis:" + animeId;
+    }
+
+    public static String ratingsKey(Long animeId) {
+        return "ratings:" + animeId;
+    }
+
+    // Shared by all of the show's trend parameters; invalidating it
+    // retires the ETags of every combination (see trendsKey below)
+    public static String trendsKey(Long animeId) {
+        return "trends:" + animeId;
+    }
+
+    /**
+     * Key for one combination of trend parameters. It carries the show's
+     * current trends generation, so after trendsKey(animeId) is
+     * invalidated every combination maps to a key with no ETag yet, and
+     * a load that started before can only record under the retired key.
+     */
+    public String trendsKey(Long animeId, int window, int segmentSize, int points) {
+        // A fresh generation if the shared entry is new or was evicted, so old keys never come back
+        Version shared = versions.get(trendsKey(animeId),
+                key -> new Version(generations.incrementAndGet(), null, false));
+        return trendsKey(animeId) + ":" + shared.generation() + ":" + window + ":" + segmentSize + ":" + points;
+    }
+
+    public static String mangaKey(Long animeId) {
+        return "manga:" + animeId;
+    }
+
+    /** Current version of the key, or null if nothing is known about it. */
+    public Version find(String key) {
+        return versions.getIfPresent(key);
+    }
+
+    /**
+     * Remembers the ETag of a response built under the given generation,
+     * unless the content has changed since.
+     */
+    public void record(String key, long generation, String etag, boolean stable) {
+        versions.asMap().compute(key, (k, current) -> {
+            long currentGeneration = current != null ? current.generation() : 0;
+            if (currentGeneration != generation) {
+                return current;
+            }
+            return new Version(generation, etag, stable);
+        });
+    }
+
+    public void invalidate(String key) {
+        versions.put(key, new Version(generations.incrementAndGet(), null, false));
+    }
+}
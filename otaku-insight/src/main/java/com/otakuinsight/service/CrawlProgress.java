@@ -0,0 +1,41 @@
+package com.otakuinsight.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Page-by-page progress of episode crawls, for whoever is watching a
+ * given anime (an analysis job). Crawls report every persisted page
+ * whether or not anyone is watching; that's a map lookup.
+ */
+@Component
+public class CrawlProgress {
+
+    @FunctionalInterface
+    public interface Listener {
+        // lastPage is null when Jikan didn't say
+        void pageDone(int page, Integer lastPage);
+    }
+
+    public interface Watch extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final Map<Long, Listener> listeners = new ConcurrentHashMap<>();
+
+    /** Watches one anime until the returned handle is closed. */
+    public Watch watch(Long animeId, Listener listener) {
+        listeners.put(animeId, listener);
+        return () -> listeners.remove(animeId, listener);
+    }
+
+    public void pageDone(Long animeId, int page, Integer lastPage) {
+        Listener listener = listeners.get(animeId);
+        if (listener != null) {
+            listener.pageDone(page, lastPage);
+        }
+    }
+}
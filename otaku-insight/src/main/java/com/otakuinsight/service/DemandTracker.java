@@ -0,0 +1,53 @@
+package com.otakuinsight.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts requests per anime over a sliding idle window, so the catalog
+ * warmer knows which titles people actually look at.
+ */
+@Component
+public class DemandTracker {
+
+    @Value("${warmer.demand.max-tracked:10000}")
+    private long maxTracked;
+
+    @Value("${warmer.demand.window:7d}")
+    private Duration window;
+
+    // Titles nobody asked for within the window drop out
+    private Cache<Long, LongAdder> requests;
+
+    @PostConstruct
+    void initCache() {
+        requests = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(window)
+                .build();
+    }
+
+    public void record(Long animeId) {
+        if (animeId != null && animeId > 0) {
+            requests.get(animeId, id -> new LongAdder()).increment();
+        }
+    }
+
+    public List<Long> mostRequested(int limit) {
+        return requests.asMap().entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, LongAdder> entry) -> entry.getValue().sum())
+                        .reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,163 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.dto.EpisodeDTO;
+import com.otakuinsight.dto.EpisodePageDTO;
+import com.otakuinsight.entity.AnimeEntity;
+import com.otakuinsight.entity.CrawlStateEntity;
+import com.otakuinsight.entity.EpisodeEntity;
+import com.otakuinsight.external.JikanClient;
+import com.otakuinsight.repository.CrawlStateRepository;
+import com.otakuinsight.repository.EpisodeRepository;
+import com.otakuinsight.repository.EpisodeUpsertResult;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Streams episode pages from Jikan into the database one page at a time.
+ *
+ * Each page is persisted together with the crawl position, so an
+ * interrupted crawl picks up where it stopped instead of at page 1, and
+ * airing shows only re-read their newest page on refresh.
+ */
+@Service
+public class EpisodeIngestionService {
+
+    @Autowired
+    private JikanClient jikanClient;
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    @Autowired
+    private CrawlStateRepository crawlStateRepository;
+
+    @Autowired
+    private EpisodeStatsService episodeStatsService;
+
+    @Autowired
+    private EpisodeRatingsCache episodeRatingsCache;
+
+    @Autowired
+    private CrawlProgress crawlProgress;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    public boolean isComplete(AnimeEntity anime) {
+        return crawlStateRepository.findById(anime.getMalId())
+                .map(state -> !Boolean.TRUE.equals(state.getHasNextPage()))
+                // Shows stored before crawl state existed were always fetched in full
+                .orElseGet(() -> episodeRepository.existsByAnime(anime));
+    }
+
+    /**
+     * Of the given anime, the ones whose episode crawl is still unfinished.
+     * Anime without a crawl state row aren't included.
+     */
+    public Set<Long> findIncomplete(Collection<Long> animeIds) {
+        return crawlStateRepository.findAllById(animeIds).stream()
+                .filter(state -> Boolean.TRUE.equals(state.getHasNextPage()))
+                .map(CrawlStateEntity::getAnimeMalId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Fetches whatever part of the episode list we don't have yet and
+     * returns the number of episode rows written.
+     */
+    public int ingest(AnimeEntity anime) {
+
+        if (jikanClient.isOffline()) {
+            // Whatever is stored is all there is; leave the crawl position alone
+            return 0;
+        }
+
+        CrawlStateEntity state = crawlStateRepository.findById(anime.getMalId())
+                .orElseGet(() -> newState(anime.getMalId()));
+
+        int startPage;
+        if (Boolean.TRUE.equals(state.getHasNextPage())) {
+            // Fresh or interrupted crawl - continue after the last stored page
+            startPage = state.getLastPage() + 1;
+        } else if (AnimeService.AIRING_STATUS.equalsIgnoreCase(anime.getStatus())) {
+            // Airing - new episodes only ever land on the newest page
+            startPage = Math.max(state.getLastPage(), 1);
+        } else {
+            return 0;
+        }
+
+        AtomicInteger written = new AtomicInteger();
+        jikanClient.streamEpisodes(anime.getMalId(), startPage, page -> {
+            written.addAndGet(persistPage(anime, state, page));
+            crawlProgress.pageDone(anime.getMalId(), page.getPage(), page.getLastPage());
+        });
+
+        // Paging ran to the end without failing
+        if (Boolean.TRUE.equals(state.getHasNextPage())) {
+            state.setHasNextPage(false);
+            state.setUpdatedAt(Instant.now());
+            crawlStateRepository.save(state);
+        }
+
+        return written.get();
+    }
+
+    private int persistPage(AnimeEntity anime, CrawlStateEntity state, EpisodePageDTO page) {
+
+        List<EpisodeEntity> entities = page.getEpisodes().stream()
+                .map(ep -> mapEpisodeDTOToEntity(ep, anime))
+                .collect(Collectors.toList());
+
+        // Rows, statistics and crawl position commit together
+        Integer written = Observation.createNotStarted("episodes.persist", observationRegistry)
+                .observe(() -> transactionTemplate.execute(tx -> {
+            EpisodeUpsertResult result = episodeStatsService.apply(anime.getMalId(),
+                    () -> episodeRepository.upsertAll(entities));
+
+            state.setLastPage(page.getPage());
+            state.setHasNextPage(page.getHasNextPage());
+            state.setUpdatedAt(Instant.now());
+            crawlStateRepository.save(state);
+
+            return result.written();
+        }));
+
+        // Only after commit, so a concurrent load can't cache the old rows again
+        if (written != null && written > 0) {
+            episodeRatingsCache.invalidate(anime.getMalId());
+        }
+
+        return written != null ? written : 0;
+    }
+
+    private CrawlStateEntity newState(Long animeMalId) {
+        CrawlStateEntity state = new CrawlStateEntity();
+        state.setAnimeMalId(animeMalId);
+        state.setLastPage(0);
+        state.setHasNextPage(true);
+        return state;
+    }
+
+    private EpisodeEntity mapEpisodeDTOToEntity(EpisodeDTO dto, AnimeEntity anime) {
+        EpisodeEntity entity = new EpisodeEntity();
+        entity.setEpisodeNumber(dto.getEpisodeNumber());
+        entity.setTitle(dto.getTitle());
+        entity.setRating(dto.getRating());
+        entity.setAnime(anime);
+        return entity;
+    }
+
+}
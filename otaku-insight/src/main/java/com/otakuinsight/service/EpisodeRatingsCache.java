@@ -0,0 +1,125 @@
+package com.otakuinsight.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.otakuinsight.repository.EpisodeRatings;
+import com.otakuinsight.repository.EpisodeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-anime packed episode ratings, for anything that needs the whole
+ * rating curve rather than the precomputed statistics. Weighed by the
+ * bytes actually retained, so a 1000-episode show costs about 12 KB.
+ *
+ * Entries are dropped whenever episodes of the show are written.
+ * Values computed from the ratings (see derive) are cached alongside,
+ * tied to the load they were computed from by a stamp rather than a
+ * reference, so they never keep evicted ratings in memory.
+ */
+@Component
+public class EpisodeRatingsCache {
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.episode-ratings.max-weight-bytes:16777216}")
+    private long maxWeight;
+
+    @Value("${cache.episode-ratings.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${cache.episode-trends.max-size:10000}")
+    private long maxDerived;
+
+    private LoadingCache<Long, Loaded> ratings;
+    private Cache<DerivedKey, Derived> derived;
+
+    private final AtomicLong loads = new AtomicLong();
+
+    private record Loaded(EpisodeRatings ratings, long stamp) {
+    }
+
+    private record DerivedKey(Long animeId, Object params) {
+    }
+
+    private record Derived(long sourceStamp, Object value) {
+    }
+
+    @PostConstruct
+    void initCache() {
+        ratings = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long animeId, Loaded value) -> value.ratings().sizeInBytes())
+                .expireAfterWrite(ttl)
+                // Expire on time even when only 304s are served
+                .scheduler(Scheduler.systemScheduler())
+                .evictionListener((Long animeId, Loaded value, RemovalCause cause) ->
+                        invalidateVersions(animeId))
+                .recordStats()
+                .build(animeId -> new Loaded(episodeRepository.findRatings(animeId), loads.incrementAndGet()));
+
+        derived = Caffeine.newBuilder()
+                .maximumSize(maxDerived)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, ratings, "episodes.ratings");
+        CaffeineCacheMetrics.monitor(meterRegistry, derived, "episodes.trends");
+    }
+
+    public EpisodeRatings get(Long animeId) {
+        return ratings.get(animeId).ratings();
+    }
+
+    /**
+     * A value computed from the show's ratings, cached per params (a
+     * record or other value type). It's reused only while the ratings it
+     * came from are still the cached ones, so once episodes are written
+     * and the ratings reloaded it's recomputed on the next call - no
+     * separate invalidation, and no race with a concurrent reload.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T derive(Long animeId, Object params, Function<EpisodeRatings, T> compute) {
+        Loaded current = ratings.get(animeId);
+        DerivedKey key = new DerivedKey(animeId, params);
+
+        Derived cached = derived.getIfPresent(key);
+        if (cached != null && cached.sourceStamp() == current.stamp()) {
+            return (T) cached.value();
+        }
+
+        T value = compute.apply(current.ratings());
+        derived.put(key, new Derived(current.stamp(), value));
+        return value;
+    }
+
+    /** Call after the transaction that wrote the episodes has committed. */
+    public void invalidate(Long animeId) {
+        ratings.invalidate(animeId);
+        invalidateVersions(animeId);
+    }
+
+    private void invalidateVersions(Long animeId) {
+        contentVersions.invalidate(ContentVersions.ratingsKey(animeId));
+        contentVersions.invalidate(ContentVersions.trendsKey(animeId));
+    }
+}
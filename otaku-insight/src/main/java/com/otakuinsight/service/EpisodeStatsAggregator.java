@@ -0,0 +1,148 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.entity.EpisodeStatsEntity;
+
+import java.util.Objects;
+
+/**
+ * Single-pass, allocation-free accumulator for episode statistics.
+ *
+ * Everything except the extremes can be updated in both directions, so
+ * a re-scored episode is a remove + add. Removing the current highest or
+ * lowest episode can't be undone incrementally; remove() reports that
+ * and the caller rebuilds from the stored ratings instead.
+ */
+public final class EpisodeStatsAggregator {
+
+    public static final int HISTOGRAM_BUCKETS = 10;
+
+    private int count;
+    private double sum;
+    private double sumSquares;
+
+    private double min;
+    private Integer minEpisodeNumber;
+    private String minEpisodeTitle;
+
+    private double max;
+    private Integer maxEpisodeNumber;
+    private String maxEpisodeTitle;
+
+    private int above9;
+    private int above8;
+    private final int[] histogram = new int[HISTOGRAM_BUCKETS];
+
+    /**
+     * Jikan scores episodes out of 5; users see them out of 10, rounded
+     * to two decimals.
+     */
+    public static double toTenPointScale(double jikanScore) {
+        return Math.round((jikanScore * 2) * 100.0) / 100.0;
+    }
+
+    public static EpisodeStatsAggregator from(EpisodeStatsEntity stats) {
+        EpisodeStatsAggregator aggregator = new EpisodeStatsAggregator();
+        if (stats.getEpisodeCount() == null || stats.getEpisodeCount() == 0) {
+            return aggregator;
+        }
+
+        aggregator.count = stats.getEpisodeCount();
+        aggregator.sum = stats.getRatingSum();
+        aggregator.sumSquares = stats.getRatingSumSquares();
+        aggregator.min = stats.getMinRating();
+        aggregator.minEpisodeNumber = stats.getMinEpisodeNumber();
+        aggregator.minEpisodeTitle = stats.getMinEpisodeTitle();
+        aggregator.max = stats.getMaxRating();
+        aggregator.maxEpisodeNumber = stats.getMaxEpisodeNumber();
+        aggregator.maxEpisodeTitle = stats.getMaxEpisodeTitle();
+        aggregator.above9 = stats.getEpisodesAbove9();
+        aggregator.above8 = stats.getEpisodesAbove8();
+        if (stats.getHistogram() != null) {
+            System.arraycopy(stats.getHistogram(), 0, aggregator.histogram, 0,
+                    Math.min(HISTOGRAM_BUCKETS, stats.getHistogram().length));
+        }
+        return aggregator;
+    }
+
+    /** Adds one episode; rating is already on the 10-point scale. */
+    public void add(Integer episodeNumber, String title, double rating) {
+
+        // Ties keep the earliest episode, like the old stream max/min did
+        if (count == 0 || rating > max
+                || (rating == max && earlier(episodeNumber, maxEpisodeNumber))) {
+            max = rating;
+            maxEpisodeNumber = episodeNumber;
+            maxEpisodeTitle = title;
+        }
+        if (count == 0 || rating < min
+                || (rating == min && earlier(episodeNumber, minEpisodeNumber))) {
+            min = rating;
+            minEpisodeNumber = episodeNumber;
+            minEpisodeTitle = title;
+        }
+
+        count++;
+        sum += rating;
+        sumSquares += rating * rating;
+        if (rating >= 9.0) above9++;
+        if (rating >= 8.0) above8++;
+        histogram[bucket(rating)]++;
+    }
+
+    /**
+     * Removes one episode. Returns false, leaving the state untouched,
+     * when the episode is the current highest or lowest one.
+     */
+    public boolean remove(Integer episodeNumber, double rating) {
+
+        if (Objects.equals(episodeNumber, maxEpisodeNumber)
+                || Objects.equals(episodeNumber, minEpisodeNumber)) {
+            return false;
+        }
+
+        count--;
+        sum -= rating;
+        sumSquares -= rating * rating;
+        if (rating >= 9.0) above9--;
+        if (rating >= 8.0) above8--;
+        histogram[bucket(rating)]--;
+        return true;
+    }
+
+    public void writeTo(EpisodeStatsEntity stats) {
+        stats.setEpisodeCount(count);
+        stats.setRatingSum(sum);
+        stats.setRatingSumSquares(sumSquares);
+        stats.setAverageRating(count > 0 ? sum / count : null);
+        stats.setRatingStdDev(count > 0 ? standardDeviation() : null);
+        stats.setMinRating(count > 0 ? min : null);
+        stats.setMinEpisodeNumber(minEpisodeNumber);
+        stats.setMinEpisodeTitle(minEpisodeTitle);
+        stats.setMaxRating(count > 0 ? max : null);
+        stats.setMaxEpisodeNumber(maxEpisodeNumber);
+        stats.setMaxEpisodeTitle(maxEpisodeTitle);
+        stats.setEpisodesAbove9(above9);
+        stats.setEpisodesAbove8(above8);
+        stats.setHistogram(histogram.clone());
+    }
+
+    public int count() {
+        return count;
+    }
+
+    // Population standard deviation; clamped since removes can leave rounding noise
+    private double standardDeviation() {
+        double mean = sum / count;
+        return Math.sqrt(Math.max(0.0, sumSquares / count - mean * mean));
+    }
+
+    private static int bucket(double rating) {
+        return Math.max(0, Math.min((int) rating, HISTOGRAM_BUCKETS - 1));
+    }
+
+    private static boolean earlier(Integer candidate, Integer current) {
+        int a = candidate != null ? candidate : Integer.MAX_VALUE;
+        int b = current != null ? current : Integer.MAX_VALUE;
+        return a < b;
+    }
+}
@@ -0,0 +1,124 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.entity.EpisodeEntity;
+import com.otakuinsight.entity.EpisodeStatsEntity;
+import com.otakuinsight.repository.EpisodeRatings;
+import com.otakuinsight.repository.EpisodeRepository;
+import com.otakuinsight.repository.EpisodeStatsRepository;
+import com.otakuinsight.repository.EpisodeUpsertResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the per-anime episode_stats row alongside episode writes.
+ */
+@Service
+public class EpisodeStatsService {
+
+    @Autowired
+    private EpisodeStatsRepository episodeStatsRepository;
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    /**
+     * Runs an episode write for the anime and folds the rows it inserted
+     * or re-scored into the stored statistics. The stats row is locked
+     * before the write, so concurrent writers of one anime queue up
+     * instead of overwriting each other's running totals. Falls back to a
+     * rebuild when there is nothing to update yet or an extreme was
+     * re-scored.
+     */
+    @Transactional
+    public EpisodeUpsertResult apply(Long animeMalId, Supplier<EpisodeUpsertResult> write) {
+
+        EpisodeStatsEntity stats = lock(animeMalId);
+        EpisodeUpsertResult result = write.get();
+
+        if (stats.getEpisodeCount() == null) {
+            // First page of a crawl, or episodes stored before stats existed
+            rebuild(animeMalId);
+            return result;
+        }
+
+        if (result.written() == 0) {
+            return result;
+        }
+
+        EpisodeStatsAggregator aggregator = EpisodeStatsAggregator.from(stats);
+
+        for (EpisodeUpsertResult.Change change : result.updated()) {
+            EpisodeEntity before = change.before();
+            if (before.getRating() != null && !aggregator.remove(before.getEpisodeNumber(),
+                    EpisodeStatsAggregator.toTenPointScale(before.getRating()))) {
+                rebuild(animeMalId);
+                return result;
+            }
+            add(aggregator, change.after());
+        }
+
+        for (EpisodeEntity episode : result.inserted()) {
+            add(aggregator, episode);
+        }
+
+        save(stats, aggregator);
+        return result;
+    }
+
+    /**
+     * Recomputes the statistics in one pass over the stored ratings.
+     */
+    @Transactional
+    public EpisodeStatsEntity rebuild(Long animeMalId) {
+
+        // Locked before reading, so a concurrent page can't land in between
+        EpisodeStatsEntity stats = lock(animeMalId);
+
+        // Packed ratings only; titles are fetched for the two extremes afterwards
+        EpisodeRatings ratings = episodeRepository.findRatings(animeMalId);
+
+        EpisodeStatsAggregator aggregator = new EpisodeStatsAggregator();
+        for (int i = 0; i < ratings.size(); i++) {
+            aggregator.add(ratings.episodeNumber(i), null,
+                    EpisodeStatsAggregator.toTenPointScale(ratings.rating(i)));
+        }
+
+        aggregator.writeTo(stats);
+        if (aggregator.count() > 0) {
+            Map<Integer, String> titles = episodeRepository.findTitles(animeMalId,
+                    List.of(stats.getMinEpisodeNumber(), stats.getMaxEpisodeNumber()));
+            stats.setMinEpisodeTitle(titles.get(stats.getMinEpisodeNumber()));
+            stats.setMaxEpisodeTitle(titles.get(stats.getMaxEpisodeNumber()));
+        }
+
+        stats.setUpdatedAt(Instant.now());
+        return episodeStatsRepository.save(stats);
+    }
+
+    // The row is created empty if missing, so the first writers lock it too
+    private EpisodeStatsEntity lock(Long animeMalId) {
+        episodeStatsRepository.insertIfAbsent(animeMalId);
+        return episodeStatsRepository.findForUpdate(animeMalId)
+                .orElseThrow(() -> new IllegalStateException("No stats row for anime " + animeMalId));
+    }
+
+    private void add(EpisodeStatsAggregator aggregator, EpisodeEntity episode) {
+        if (episode.getRating() != null) {
+            aggregator.add(episode.getEpisodeNumber(), episode.getTitle(),
+                    EpisodeStatsAggregator.toTenPointScale(episode.getRating()));
+        }
+    }
+
+    private EpisodeStatsEntity save(EpisodeStatsEntity stats, EpisodeStatsAggregator aggregator) {
+        aggregator.writeTo(stats);
+        stats.setUpdatedAt(Instant.now());
+        return episodeStatsRepository.save(stats);
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.dto.EpisodeDTO;
+import com.otakuinsight.dto.EpisodeTrendsDTO;
+import com.otakuinsight.repository.EpisodeRatings;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes EpisodeTrendsDTO in a single pass over packed ratings.
+ *
+ * Everything is accumulated as the episodes go by: a ring buffer for the
+ * trailing average, running sums for the current segment and curve
+ * bucket, two fixed-size top-k arrays for peaks and slumps, and a
+ * histogram of hundredths for exact percentiles (ratings have two
+ * decimals), so the cost is the same O(n) for a cour or a 1000-episode
+ * show and the only allocations are sized by the output. Titles are left
+ * null for the caller to fill in.
+ */
+public final class EpisodeTrendAnalyzer {
+
+    // 0.00 to 10.00 in steps of 0.01
+    private static final int HUNDREDTHS = 1001;
+
+    private static final double[] PERCENTILES = {0.10, 0.25, 0.50, 0.75, 0.90};
+
+    private EpisodeTrendAnalyzer() {
+    }
+
+    public static EpisodeTrendsDTO analyze(EpisodeRatings ratings, int window, int segmentSize,
+                                           int points, int extremes, double minDeviation) {
+
+        int count = ratings.size();
+        int bucketCount = Math.min(points, count);
+
+        int[] histogram = new int[HUNDREDTHS];
+        double[] trailing = new double[window];
+        double trailingSum = 0;
+
+        TopK peaks = new TopK(extremes);
+        TopK slumps = new TopK(extremes);
+
+        List<EpisodeTrendsDTO.Segment> segments = new ArrayList<>();
+        Run segment = null;
+        int segmentIndex = -1;
+
+        int[] curveEpisodes = new int[bucketCount];
+        double[] curveAverage = new double[bucketCount];
+        double[] curveMin = new double[bucketCount];
+        double[] curveMax = new double[bucketCount];
+        double[] curveRolling = new double[bucketCount];
+        Run bucket = null;
+        int bucketIndex = -1;
+
+        for (int i = 0; i < count; i++) {
+            int episode = ratings.episodeNumber(i);
+            double rating = EpisodeStatsAggregator.toTenPointScale(ratings.rating(i));
+
+            histogram[Math.max(0, Math.min(HUNDREDTHS - 1, (int) Math.round(rating * 100)))]++;
+
+            // Compare against the episodes just before this one, then slide the window
+            int seen = Math.min(i, window);
+            if (seen > 0) {
+                double deviation = rating - trailingSum / seen;
+                if (deviation >= minDeviation) {
+                    peaks.offer(episode, rating, deviation);
+                } else if (-deviation >= minDeviation) {
+                    slumps.offer(episode, rating, -deviation);
+                }
+            }
+            if (i >= window) {
+                trailingSum -= trailing[i % window];
+            }
+            trailing[i % window] = rating;
+            trailingSum += rating;
+            double rolling = trailingSum / Math.min(i + 1, window);
+
+            // Segments follow episode numbers (1-12, 13-24, ...), not positions
+            int currentSegment = Math.max(0, episode - 1) / segmentSize;
+            if (currentSegment != segmentIndex) {
+                if (segment != null) {
+                    segments.add(segment.toSegment(segmentIndex, segmentSize));
+                }
+                segment = new Run();
+                segmentIndex = currentSegment;
+            }
+            segment.add(rating);
+
+            // Curve buckets split the episodes evenly by position
+            int currentBucket = (int) ((long) i * bucketCount / count);
+            if (currentBucket != bucketIndex) {
+                if (bucket != null) {
+                    bucket.writeTo(bucketIndex, curveAverage, curveMin, curveMax);
+                }
+                bucket = new Run();
+                bucketIndex = currentBucket;
+            }
+            bucket.add(rating);
+            curveEpisodes[currentBucket] = episode;
+            curveRolling[currentBucket] = round(rolling);
+        }
+
+        if (segment != null) {
+            segments.add(segment.toSegment(segmentIndex, segmentSize));
+        }
+        if (bucket != null) {
+            bucket.writeTo(bucketIndex, curveAverage, curveMin, curveMax);
+        }
+
+        EpisodeTrendsDTO trends = new EpisodeTrendsDTO();
+        trends.setTotalEpisodes(count);
+        trends.setRollingWindow(window);
+        trends.setSegmentSize(segmentSize);
+
+        if (count > 0) {
+            double[] percentiles = percentiles(histogram, count);
+            trends.setP10(percentiles[0]);
+            trends.setP25(percentiles[1]);
+            trends.setMedian(percentiles[2]);
+            trends.setP75(percentiles[3]);
+            trends.setP90(percentiles[4]);
+        }
+
+        trends.setSegments(segments);
+        trends.setPeaks(peaks.toEpisodes());
+        trends.setSlumps(slumps.toEpisodes());
+
+        EpisodeTrendsDTO.Curve curve = new EpisodeTrendsDTO.Curve();
+        curve.setEpisodes(curveEpisodes);
+        curve.setAverageRating(curveAverage);
+        curve.setMinRating(curveMin);
+        curve.setMaxRating(curveMax);
+        curve.setRollingAverage(curveRolling);
+        trends.setCurve(curve);
+
+        return trends;
+    }
+
+    // Nearest-rank percentiles, all read in one walk up the histogram
+    private static double[] percentiles(int[] histogram, int count) {
+        double[] values = new double[PERCENTILES.length];
+        int next = 0;
+        int cumulative = 0;
+
+        for (int hundredths = 0; hundredths < HUNDREDTHS && next < PERCENTILES.length; hundredths++) {
+            cumulative += histogram[hundredths];
+            while (next < PERCENTILES.length
+                    && cumulative >= Math.max(1, (int) Math.ceil(PERCENTILES[next] * count))) {
+                values[next++] = hundredths / 100.0;
+            }
+        }
+        return values;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    // ==========================================
+    // Accumulators
+    // ==========================================
+
+    /** Count, sum and range of a run of consecutive episodes. */
+    private static final class Run {
+
+        private int count;
+        private double sum;
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+
+        void add(double rating) {
+            count++;
+            sum += rating;
+            min = Math.min(min, rating);
+            max = Math.max(max, rating);
+        }
+
+        void writeTo(int index, double[] average, double[] minimum, double[] maximum) {
+            average[index] = round(sum / count);
+            minimum[index] = min;
+            maximum[index] = max;
+        }
+
+        EpisodeTrendsDTO.Segment toSegment(int index, int size) {
+            EpisodeTrendsDTO.Segment segment = new EpisodeTrendsDTO.Segment();
+            segment.setFirstEpisode(index * size + 1);
+            segment.setLastEpisode((index + 1) * size);
+            segment.setRatedEpisodes(count);
+            segment.setAverageRating(round(sum / count));
+            segment.setMinRating(min);
+            segment.setMaxRating(max);
+            return segment;
+        }
+    }
+
+    /**
+     * The k episodes with the largest deviation, kept sorted in fixed
+     * arrays. Ties keep the earlier episode.
+     */
+    private static final class TopK {
+
+        private final int[] episodes;
+        private final double[] ratings;
+        private final double[] deviations;
+        private int size;
+
+        TopK(int k) {
+            episodes = new int[k];
+            ratings = new double[k];
+            deviations = new double[k];
+        }
+
+        void offer(int episode, double rating, double deviation) {
+            if (episodes.length == 0
+                    || (size == episodes.length && deviation <= deviations[size - 1])) {
+                return;
+            }
+
+            int position = Math.min(size, episodes.length - 1);
+            while (position > 0 && deviations[position - 1] < deviation) {
+                episodes[position] = episodes[position - 1];
+                ratings[position] = ratings[position - 1];
+                deviations[position] = deviations[position - 1];
+                position--;
+            }
+
+            episodes[position] = episode;
+            ratings[position] = rating;
+            deviations[position] = deviation;
+            size = Math.min(size + 1, episodes.length);
+        }
+
+        List<EpisodeDTO> toEpisodes() {
+            List<EpisodeDTO> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                EpisodeDTO dto = new EpisodeDTO();
+                dto.setEpisodeNumber(episodes[i]);
+                dto.setRating(ratings[i]);
+                result.add(dto);
+            }
+            return result;
+        }
+    }
+}
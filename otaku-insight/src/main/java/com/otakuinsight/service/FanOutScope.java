@@ -0,0 +1,102 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.external.UpstreamTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shutdown-on-failure fan-out with one overall deadline, in the spirit of
+ * StructuredTaskScope (still a preview API on Java 21).
+ *
+ * Every forked task runs on its own virtual thread. The first failure or
+ * the deadline cancels all siblings, and is what a later fork or join
+ * throws. Closing the scope interrupts what is still running and waits
+ * for it to finish, so no task outlives the caller.
+ */
+final class FanOutScope implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    private final long deadlineNanos;
+
+    FanOutScope(Duration timeout) {
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    <T> Future<T> fork(Callable<T> task) {
+        // A sibling already failed - report that, not the rejected fork
+        rethrowFirstFailure();
+        try {
+            return executor.submit(() -> {
+                try {
+                    return task.call();
+                } catch (Exception | Error e) {
+                    // Fail fast - interrupt everything else in the scope
+                    fail(e);
+                    throw e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The failure landed between the check and the submit
+            rethrowFirstFailure();
+            throw e;
+        }
+    }
+
+    <T> T join(Future<T> future) {
+        try {
+            return future.get(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+
+        } catch (TimeoutException e) {
+            UpstreamTimeoutException timeout = new UpstreamTimeoutException("Timed out waiting for upstream data", e);
+            fail(timeout);
+            throw timeout;
+
+        } catch (ExecutionException e) {
+            fail(e.getCause());
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for upstream data", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        // Blocks until every interrupted task has returned
+        executor.close();
+    }
+
+    private void fail(Throwable failure) {
+        firstFailure.compareAndSet(null, failure);
+        executor.shutdownNow();
+    }
+
+    private void rethrowFirstFailure() {
+        Throwable failure = firstFailure.get();
+        if (failure instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+}
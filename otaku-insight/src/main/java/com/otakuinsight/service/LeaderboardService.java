@@ -0,0 +1,193 @@
+package com.otakuinsight.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.otakuinsight.dto.LeaderboardPageDTO;
+import com.otakuinsight.dto.RankedAnimeDTO;
+import com.otakuinsight.dto.RankedEpisodeDTO;
+import com.otakuinsight.repository.LeaderboardRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Leaderboards across everything stored: top episodes, top anime by
+ * score (optionally per year) and the most consistent series.
+ *
+ * Pages are keyset-paginated; the cursor is the sort key of the last
+ * row, opaque to clients. Pages are cached briefly, since the boards
+ * only move as crawls land.
+ */
+@Service
+public class LeaderboardService {
+
+    @Autowired
+    private LeaderboardRepository leaderboardRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${leaderboards.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${leaderboards.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${leaderboards.consistency.min-episodes:12}")
+    private int defaultMinEpisodes;
+
+    @Value("${cache.leaderboards.max-size:1000}")
+    private long maxPages;
+
+    @Value("${cache.leaderboards.ttl:1m}")
+    private Duration ttl;
+
+    private Cache<PageKey, LeaderboardPageDTO<?>> pages;
+
+    private record PageKey(String board, Integer filter, String after, int limit) {
+    }
+
+    @PostConstruct
+    void initCache() {
+        pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "leaderboards");
+    }
+
+    // ==========================================
+    // Boards
+    // ==========================================
+
+    public LeaderboardPageDTO<RankedEpisodeDTO> topEpisodes(String after, Integer limit) {
+        int size = limit(limit);
+
+        return page("episodes", null, after, size, () -> {
+            LeaderboardRepository.EpisodeKey key = null;
+            if (after != null) {
+                String[] parts = decode(after, 3);
+                key = new LeaderboardRepository.EpisodeKey(
+                        Double.parseDouble(parts[0]), Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+            }
+
+            List<RankedEpisodeDTO> rows = leaderboardRepository.findTopEpisodes(key, size + 1);
+            LeaderboardPageDTO<RankedEpisodeDTO> page = toPage(rows, size, last ->
+                    encode(last.getRating(), last.getAnimeMalId(), last.getEpisodeNumber()));
+
+            // Stored on Jikan's 5-point scale; the cursor above keeps the raw value
+            page.getItems().forEach(episode ->
+                    episode.setRating(EpisodeStatsAggregator.toTenPointScale(episode.getRating())));
+            return page;
+        });
+    }
+
+    public LeaderboardPageDTO<RankedAnimeDTO> topAnime(Integer year, String after, Integer limit) {
+        int size = limit(limit);
+
+        return page("anime", year, after, size, () -> {
+            List<RankedAnimeDTO> rows = leaderboardRepository.findTopScored(year, animeKey(after), size + 1);
+            return rounded(toPage(rows, size, last -> encode(last.getScore(), last.getMalId())));
+        });
+    }
+
+    public LeaderboardPageDTO<RankedAnimeDTO> mostConsistent(Integer minEpisodes, String after, Integer limit) {
+        int size = limit(limit);
+        int threshold = minEpisodes != null ? minEpisodes : defaultMinEpisodes;
+        if (threshold < 1) {
+            throw new IllegalArgumentException("minEpisodes must be at least 1");
+        }
+
+        return page("consistent", threshold, after, size, () -> {
+            List<RankedAnimeDTO> rows = leaderboardRepository.findMostConsistent(threshold, animeKey(after), size + 1);
+            return rounded(toPage(rows, size, last -> encode(last.getRatingStdDev(), last.getMalId())));
+        });
+    }
+
+    // ==========================================
+    // Paging
+    // ==========================================
+
+    private int limit(Integer limit) {
+        int size = limit != null ? limit : defaultLimit;
+        if (size < 1 || size > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> LeaderboardPageDTO<T> page(String board, Integer filter, String after, int limit,
+                                           Supplier<LeaderboardPageDTO<T>> load) {
+        return (LeaderboardPageDTO<T>) pages.get(new PageKey(board, filter, after, limit), key -> load.get());
+    }
+
+    // One row past the page tells us whether there is a next one
+    private static <T> LeaderboardPageDTO<T> toPage(List<T> rows, int limit, Function<T, String> cursorOf) {
+        LeaderboardPageDTO<T> page = new LeaderboardPageDTO<>();
+        boolean more = rows.size() > limit;
+        page.setItems(more ? rows.subList(0, limit) : rows);
+        page.setNextCursor(more ? cursorOf.apply(rows.get(limit - 1)) : null);
+        return page;
+    }
+
+    private static LeaderboardPageDTO<RankedAnimeDTO> rounded(LeaderboardPageDTO<RankedAnimeDTO> page) {
+        for (RankedAnimeDTO anime : page.getItems()) {
+            anime.setAverageRating(round(anime.getAverageRating()));
+            anime.setRatingStdDev(round(anime.getRatingStdDev()));
+        }
+        return page;
+    }
+
+    private static Double round(Double value) {
+        return value != null ? Math.round(value * 100.0) / 100.0 : null;
+    }
+
+    private static LeaderboardRepository.AnimeKey animeKey(String after) {
+        if (after == null) {
+            return null;
+        }
+        String[] parts = decode(after, 2);
+        return new LeaderboardRepository.AnimeKey(Double.parseDouble(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    // Double.toString round-trips exactly, so ties on the sort value resume correctly
+    private static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (Object part : parts) {
+            if (!raw.isEmpty()) {
+                raw.append(':');
+            }
+            raw.append(part);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            // Parsed by the caller; a malformed number is a NumberFormatException, also an IAE
+            return parts;
+
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
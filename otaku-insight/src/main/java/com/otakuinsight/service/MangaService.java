@@ -1,11 +1,36 @@
 package com.otakuinsight.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.otakuinsight.dto.AnimeDTO;
+import com.otakuinsight.dto.BatchResultDTO;
 import com.otakuinsight.dto.MangaInfoDTO;
+import com.otakuinsight.entity.AnimeEntity;
 import com.otakuinsight.external.JikanClient;
+import com.otakuinsight.external.UpstreamUnavailableException;
+import com.otakuinsight.external.model.JikanManga;
+import com.otakuinsight.external.model.JikanRelation;
+import com.otakuinsight.repository.AnimeAdaptationRepository;
+import com.otakuinsight.repository.AnimeRepository;
+import com.otakuinsight.repository.MangaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 @Service
 public class MangaService {
@@ -13,60 +38,257 @@ public class MangaService {
     @Autowired
     private JikanClient jikanClient;
 
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Autowired
+    private AnimeAdaptationRepository animeAdaptationRepository;
+
+    @Autowired
+    private MangaRepository mangaRepository;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.manga.max-weight-bytes:4194304}")
+    private long mangaCacheMaxWeight;
+
+    @Value("${cache.manga.ttl:24h}")
+    private Duration mangaCacheTtl;
+
+    @Value("${cache.manga.last-known-ttl:7d}")
+    private Duration lastKnownMangaTtl;
+
+    @Value("${cache.manga-details.max-size:10000}")
+    private long mangaDetailsCacheMaxSize;
+
+    @Value("${manga.fan-out.timeout:10s}")
+    private Duration fanOutTimeout;
+
+    @Value("${batch.max-concurrent-misses:4}")
+    private int batchMaxConcurrentMisses;
+
+    private Cache<Long, MangaInfoDTO> mangaCache;
+
+    // Outlives mangaCache so there is something to serve during an outage
+    private Cache<Long, MangaInfoDTO> lastKnownManga;
+
+    // Keyed by manga id - sequels and remakes often adapt the same manga
+    private Cache<Long, JikanManga> mangaDetailsCache;
+
+    // Prefetches of secondary adaptations must outlive the request's scope
+    private final ExecutorService prefetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PostConstruct
+    void initCache() {
+        mangaCache = Caffeine.newBuilder()
+                .maximumWeight(mangaCacheMaxWeight)
+                .weigher((Long key, MangaInfoDTO manga) -> CacheWeights.of(manga))
+                .expireAfterWrite(mangaCacheTtl)
+                // Expire on time even when only 304s are served
+                .scheduler(Scheduler.systemScheduler())
+                // Runs inside the eviction, so the ETag never outlives the entry
+                .evictionListener((Long key, MangaInfoDTO manga, RemovalCause cause) ->
+                        contentVersions.invalidate(ContentVersions.mangaKey(key)))
+                .recordStats()
+                .build();
+
+        lastKnownManga = Caffeine.newBuilder()
+                .maximumWeight(mangaCacheMaxWeight)
+                .weigher((Long key, MangaInfoDTO manga) -> CacheWeights.of(manga))
+                .expireAfterWrite(lastKnownMangaTtl)
+                .build();
+
+        mangaDetailsCache = Caffeine.newBuilder()
+                .maximumSize(mangaDetailsCacheMaxSize)
+                .expireAfterWrite(mangaCacheTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, mangaCache, "manga.info");
+        CaffeineCacheMetrics.monitor(meterRegistry, mangaDetailsCache, "manga.details");
+    }
+
+    @PreDestroy
+    void shutdownPrefetches() {
+        prefetchExecutor.shutdownNow();
+    }
+
     public MangaInfoDTO getMangaInfo(Long animeId) {
 
         if (animeId == null || animeId <= 0) {
             throw new IllegalArgumentException("Invalid anime ID");
         }
 
-        // Step 1: Find related manga for this anime
-        Map<String, Object> relatedManga = jikanClient.fetchRelatedManga(animeId);
+        MangaInfoDTO cached = mangaCache.getIfPresent(animeId);
+        if (cached != null) {
+            return cached;
+        }
+
+        MangaInfoDTO mangaInfo;
+        try {
+            mangaInfo = coalescer.execute("manga:" + animeId, () -> loadMangaInfo(animeId));
+
+        } catch (UpstreamUnavailableException e) {
+            // Jikan is down - fall back to the last answer we gave, if any
+            MangaInfoDTO lastKnown = lastKnownManga.getIfPresent(animeId);
+            if (lastKnown == null) {
+                throw e;
+            }
+            return lastKnown;
+        }
 
-        if (relatedManga == null) {
-            throw new RuntimeException("No manga found for this anime");
+        if (mangaCache.asMap().put(animeId, mangaInfo) != null) {
+            // A replaced answer's ETag goes in the same step
+            contentVersions.invalidate(ContentVersions.mangaKey(animeId));
         }
+        lastKnownManga.put(animeId, staleCopy(mangaInfo));
+        return mangaInfo;
+    }
 
-        // Step 2: Get manga ID and fetch full details
-        Long mangaId = ((Number) relatedManga.get("mal_id")).longValue();
-        Map<String, Object> mangaDetails = jikanClient.fetchMangaDetails(mangaId);
+    public void getMangaInfoBatch(Collection<Long> animeIds, Consumer<BatchResultDTO<MangaInfoDTO>> sink) {
 
-        if (mangaDetails == null) {
-            throw new RuntimeException("Could not fetch manga details");
+        try (BatchPipeline<MangaInfoDTO> pipeline = new BatchPipeline<>(batchMaxConcurrentMisses, sink)) {
+
+            List<Long> misses = new ArrayList<>();
+
+            // Cached answers first so they render while misses are fetched
+            for (Long animeId : animeIds) {
+                MangaInfoDTO cached = animeId != null ? mangaCache.getIfPresent(animeId) : null;
+                if (cached != null) {
+                    pipeline.emit(animeId, cached);
+                } else {
+                    misses.add(animeId);
+                }
+            }
+
+            for (Long animeId : misses) {
+                pipeline.submit(animeId, () -> getMangaInfo(animeId));
+            }
         }
+    }
+
+    private MangaInfoDTO loadMangaInfo(Long animeId) {
+
+        // Anime title and relations are independent - fetch them side by side
+        try (FanOutScope scope = new FanOutScope(fanOutTimeout)) {
+
+            Future<String> animeTitle = scope.fork(() -> findAnimeTitle(animeId));
+            Future<List<JikanRelation.Entry>> adaptations =
+                    scope.fork(() -> findAdaptations(animeId));
+
+            // Step 1: Find related manga for this anime
+            List<JikanRelation.Entry> relatedManga = scope.join(adaptations);
+
+            if (relatedManga.isEmpty()) {
+                throw new RuntimeException("No manga found for this anime");
+            }
 
-        // Step 3: Build response
-        return buildMangaInfoDTO(animeId, mangaDetails);
+            // Step 2: Fetch full details of the main adaptation, warm the rest
+            Future<JikanManga> mainDetails =
+                    scope.fork(() -> fetchMangaDetails(relatedManga.get(0).malId()));
+
+            relatedManga.stream()
+                    .skip(1)
+                    .forEach(entry -> prefetchExecutor.execute(() -> prefetchMangaDetails(entry.malId())));
+
+            JikanManga mangaDetails = scope.join(mainDetails);
+
+            if (mangaDetails == null) {
+                throw new RuntimeException("Could not fetch manga details");
+            }
+
+            // Step 3: Build response
+            return buildMangaInfoDTO(scope.join(animeTitle), mangaDetails);
+        }
     }
 
-    private MangaInfoDTO buildMangaInfoDTO(Long animeId,
-                                           Map<String, Object> mangaDetails) {
+    private String findAnimeTitle(Long animeId) {
 
-        MangaInfoDTO dto = new MangaInfoDTO();
+        // Local DB first, Jikan only for anime we've never stored
+        return animeRepository.findById(animeId)
+                .map(AnimeEntity::getTitle)
+                .orElseGet(() -> {
+                    AnimeDTO anime = jikanClient.searchAnimeById(animeId);
+                    return anime != null ? anime.getTitle() : null;
+                });
+    }
 
-        // Manga title
-        dto.setMangaTitle((String) mangaDetails.get("title"));
+    private List<JikanRelation.Entry> findAdaptations(Long animeId) {
 
-        // Total chapters
-        if (mangaDetails.get("chapters") != null) {
-            dto.setTotalMangaChapters(
-                    ((Number) mangaDetails.get("chapters")).intValue());
+        // Imported relations first, Jikan only for anime the snapshot didn't cover
+        List<JikanRelation.Entry> stored = animeAdaptationRepository.findByAnimeMalIdOrderByPosition(animeId).stream()
+                .map(adaptation -> new JikanRelation.Entry(adaptation.getMangaMalId(), "manga", adaptation.getMangaName()))
+                .toList();
+
+        return !stored.isEmpty() ? stored : jikanClient.fetchAdaptationManga(animeId);
+    }
+
+    private JikanManga fetchMangaDetails(Long mangaId) {
+        JikanManga cached = mangaDetailsCache.getIfPresent(mangaId);
+        if (cached != null) {
+            return cached;
+        }
+
+        JikanManga details = mangaRepository.findById(mangaId)
+                .map(manga -> new JikanManga(manga.getMalId(), manga.getTitle(),
+                        manga.getChapters(), manga.getVolumes(), manga.getStatus()))
+                .orElseGet(() -> jikanClient.fetchMangaDetails(mangaId));
+        if (details != null) {
+            mangaDetailsCache.put(mangaId, details);
         }
+        return details;
+    }
 
-        // Total volumes
-        if (mangaDetails.get("volumes") != null) {
-            dto.setTotalMangaVolumes(
-                    ((Number) mangaDetails.get("volumes")).intValue());
+    private void prefetchMangaDetails(Long mangaId) {
+        try {
+            fetchMangaDetails(mangaId);
+        } catch (RuntimeException e) {
+            // Best effort - the main response doesn't depend on it
         }
+    }
+
+    private MangaInfoDTO staleCopy(MangaInfoDTO mangaInfo) {
+        MangaInfoDTO copy = new MangaInfoDTO();
+        copy.setAnimeTitle(mangaInfo.getAnimeTitle());
+        copy.setMangaTitle(mangaInfo.getMangaTitle());
+        copy.setTotalMangaChapters(mangaInfo.getTotalMangaChapters());
+        copy.setTotalMangaVolumes(mangaInfo.getTotalMangaVolumes());
+        copy.setMangaStatus(mangaInfo.getMangaStatus());
+        copy.setContinueFromChapter(mangaInfo.getContinueFromChapter());
+        copy.setNote(mangaInfo.getNote());
+        copy.setStale(true);
+        return copy;
+    }
+
+    private MangaInfoDTO buildMangaInfoDTO(String animeTitle,
+                                           JikanManga mangaDetails) {
+
+        MangaInfoDTO dto = new MangaInfoDTO();
+
+        // Anime title
+        dto.setAnimeTitle(animeTitle);
+
+        // Manga title
+        dto.setMangaTitle(mangaDetails.title());
+
+        // Total chapters and volumes
+        dto.setTotalMangaChapters(mangaDetails.chapters());
+        dto.setTotalMangaVolumes(mangaDetails.volumes());
 
         // Manga status
-        dto.setMangaStatus((String) mangaDetails.get("status"));
+        dto.setMangaStatus(mangaDetails.status());
 
         // Continue from chapter logic
-        if (mangaDetails.get("chapters") != null) {
-            Integer totalChapters =
-                    ((Number) mangaDetails.get("chapters")).intValue();
+        if (mangaDetails.chapters() != null) {
             dto.setContinueFromChapter(
-                    "Anime covers full manga - " + totalChapters + " chapters");
+                    "Anime covers full manga - " + mangaDetails.chapters() + " chapters");
             dto.setNote("Fully adapted - no additional manga content");
         } else {
             dto.setContinueFromChapter("Manga still ongoing - check latest chapters");
@@ -76,4 +298,4 @@ public class MangaService {
         return dto;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.external.JikanRequestScheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution for expensive cache misses.
+ *
+ * The first caller for a key runs the work; anyone arriving while it is
+ * still running waits on the same future instead of starting their own
+ * upstream fetch and insert loop. If the leader runs demoted (the
+ * catalog warmer), a joiner lifts it to the joiner's own Jikan priority.
+ */
+@Component
+public class RequestCoalescer {
+
+    private record Flight(CompletableFuture<Object> result, JikanRequestScheduler.Ceiling ceiling) {
+    }
+
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    private JikanRequestScheduler scheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> work) {
+
+        Flight mine = new Flight(new CompletableFuture<>(), scheduler.currentCeiling());
+        Flight existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            // Someone is already fetching this - wait for their result
+            counter(key, "coalesced").increment();
+            if (existing.ceiling() != null) {
+                scheduler.lift(existing.ceiling());
+            }
+            return (T) join(existing.result());
+        }
+
+        counter(key, "executed").increment();
+        try {
+            T result = work.get();
+            mine.result().complete(result);
+            return result;
+
+        } catch (RuntimeException | Error e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's exception as-is so callers map it the same way
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String key, String outcome) {
+        return Counter.builder("coalescer.calls")
+                .description("Calls that ran the work vs joined an in-flight call")
+                .tag("operation", key.substring(0, key.indexOf(':')))
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,367 @@
+package com.otakuinsight.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.otakuinsight.dto.EpisodeDTO;
+import com.otakuinsight.entity.AnimeAdaptationEntity;
+import com.otakuinsight.entity.AnimeEntity;
+import com.otakuinsight.entity.CrawlStateEntity;
+import com.otakuinsight.entity.EpisodeEntity;
+import com.otakuinsight.entity.MangaEntity;
+import com.otakuinsight.external.JikanClient;
+import com.otakuinsight.external.model.JikanAnime;
+import com.otakuinsight.external.model.JikanEpisode;
+import com.otakuinsight.external.model.JikanManga;
+import com.otakuinsight.external.model.JikanRelation;
+import com.otakuinsight.repository.AnimeRepository;
+import com.otakuinsight.repository.CrawlStateRepository;
+import com.otakuinsight.repository.EpisodeRepository;
+import com.otakuinsight.repository.SnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Loads a Jikan data dump straight into the database, so the app can run
+ * with jikan.offline=true (or just start warm).
+ *
+ * A snapshot is a directory with up to four files, each either NDJSON or
+ * a single JSON array, optionally gzipped (anime.ndjson, anime.json,
+ * anime.ndjson.gz, ...):
+ *
+ *   anime      - Jikan anime objects, as in /anime/{id}
+ *   manga      - Jikan manga objects, as in /manga/{id}
+ *   relations  - {"anime_mal_id": 5114, "data": [...]}, the data of /anime/{id}/relations
+ *   episodes   - Jikan episode objects plus "anime_mal_id"
+ *
+ * Records are parsed one at a time and written in chunks of
+ * snapshot.import.batch-size, each chunk in its own transaction, so a
+ * full dump never sits in memory or in one giant transaction. Imported
+ * anime get their statistics built and their crawl marked complete.
+ *
+ * Runs at startup when snapshot.import.path is set.
+ */
+@Service
+public class SnapshotImporter implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotImporter.class);
+
+    // Jikan serves episodes 100 to a page
+    private static final int EPISODES_PER_PAGE = 100;
+
+    public record ImportSummary(int anime, int manga, int adaptations, int episodes) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record SnapshotRelations(
+            @JsonProperty("anime_mal_id") Long animeMalId,
+            List<JikanRelation> data) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record SnapshotEpisode(
+            @JsonProperty("anime_mal_id") Long animeMalId,
+            @JsonProperty("mal_id") Integer malId,
+            String title,
+            Double score) {
+    }
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private SnapshotRepository snapshotRepository;
+
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    @Autowired
+    private EpisodeStatsService episodeStatsService;
+
+    @Autowired
+    private CrawlStateRepository crawlStateRepository;
+
+    @Autowired
+    private TitleSearchIndex titleSearchIndex;
+
+    @Autowired
+    private EpisodeRatingsCache episodeRatingsCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${snapshot.import.path:}")
+    private String importPath;
+
+    @Value("${snapshot.import.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!importPath.isBlank()) {
+            importFrom(Path.of(importPath));
+        }
+    }
+
+    public ImportSummary importFrom(Path directory) {
+
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Snapshot directory not found: " + directory);
+        }
+
+        long start = System.nanoTime();
+
+        // Anime first - episodes reference them
+        int anime = importAnime(directory);
+        int manga = importManga(directory);
+        int adaptations = importRelations(directory);
+        int episodes = importEpisodes(directory);
+
+        ImportSummary summary = new ImportSummary(anime, manga, adaptations, episodes);
+        log.info("Imported snapshot {} in {} ms: {}", directory,
+                (System.nanoTime() - start) / 1_000_000, summary);
+        return summary;
+    }
+
+    // ==========================================
+    // Datasets
+    // ==========================================
+
+    private int importAnime(Path directory) {
+        List<AnimeEntity> chunk = new ArrayList<>(batchSize);
+        AtomicInteger written = new AtomicInteger();
+
+        stream(directory, "anime", JikanAnime.class, animeData -> {
+            if (animeData.malId() == null) return;
+
+            chunk.add(AnimeService.mapDTOToEntity(JikanClient.mapToAnimeDTO(animeData)));
+            if (chunk.size() >= batchSize) {
+                written.addAndGet(writeAnime(chunk));
+                chunk.clear();
+            }
+        });
+
+        written.addAndGet(writeAnime(chunk));
+        return written.get();
+    }
+
+    private int writeAnime(List<AnimeEntity> chunk) {
+        int written = inTransaction(() -> snapshotRepository.upsertAnime(chunk));
+        // Searchable as soon as the chunk is committed
+        chunk.forEach(titleSearchIndex::index);
+        return written;
+    }
+
+    private int importManga(Path directory) {
+        List<MangaEntity> chunk = new ArrayList<>(batchSize);
+        AtomicInteger written = new AtomicInteger();
+
+        stream(directory, "manga", JikanManga.class, mangaData -> {
+            if (mangaData.malId() == null) return;
+
+            MangaEntity manga = new MangaEntity();
+            manga.setMalId(mangaData.malId());
+            manga.setTitle(mangaData.title());
+            manga.setChapters(mangaData.chapters());
+            manga.setVolumes(mangaData.volumes());
+            manga.setStatus(mangaData.status());
+
+            chunk.add(manga);
+            if (chunk.size() >= batchSize) {
+                written.addAndGet(inTransaction(() -> snapshotRepository.upsertManga(chunk)));
+                chunk.clear();
+            }
+        });
+
+        written.addAndGet(inTransaction(() -> snapshotRepository.upsertManga(chunk)));
+        return written.get();
+    }
+
+    private int importRelations(Path directory) {
+        Map<Long, List<AnimeAdaptationEntity>> chunk = new LinkedHashMap<>();
+        AtomicInteger written = new AtomicInteger();
+
+        stream(directory, "relations", SnapshotRelations.class, relations -> {
+            if (relations.animeMalId() == null || relations.data() == null) return;
+
+            // Same Adaptation/manga filter as a live relations lookup
+            List<AnimeAdaptationEntity> adaptations = new ArrayList<>();
+            for (JikanRelation.Entry entry : JikanClient.adaptationsOf(relations.data())) {
+                AnimeAdaptationEntity adaptation = new AnimeAdaptationEntity();
+                adaptation.setAnimeMalId(relations.animeMalId());
+                adaptation.setPosition(adaptations.size());
+                adaptation.setMangaMalId(entry.malId());
+                adaptation.setMangaName(entry.name());
+                adaptations.add(adaptation);
+            }
+
+            chunk.put(relations.animeMalId(), adaptations);
+            if (chunk.size() >= batchSize) {
+                written.addAndGet(replaceAdaptations(chunk));
+                chunk.clear();
+            }
+        });
+
+        written.addAndGet(replaceAdaptations(chunk));
+        return written.get();
+    }
+
+    private int replaceAdaptations(Map<Long, List<AnimeAdaptationEntity>> byAnime) {
+        List<AnimeAdaptationEntity> rows = byAnime.values().stream().flatMap(List::stream).toList();
+        return inTransaction(() -> snapshotRepository.replaceAdaptations(byAnime.keySet(), rows));
+    }
+
+    private int importEpisodes(Path directory) {
+
+        // Episodes of anime missing from the database would break the foreign key
+        Set<Long> knownAnime = new HashSet<>(animeRepository.findAllMalIds());
+        Map<Long, AnimeEntity> references = new HashMap<>();
+        Map<Long, Integer> lastEpisode = new LinkedHashMap<>();
+
+        List<EpisodeEntity> chunk = new ArrayList<>(batchSize);
+        AtomicInteger written = new AtomicInteger();
+
+        stream(directory, "episodes", SnapshotEpisode.class, episodeData -> {
+            if (episodeData.animeMalId() == null || !knownAnime.contains(episodeData.animeMalId())) return;
+
+            lastEpisode.merge(episodeData.animeMalId(),
+                    episodeData.malId() != null ? episodeData.malId() : 0, Math::max);
+
+            // Unscored episodes are skipped, as in a live crawl
+            EpisodeDTO dto = JikanClient.mapToEpisodeDTO(
+                    new JikanEpisode(episodeData.malId(), episodeData.title(), episodeData.score()));
+            if (dto == null) return;
+
+            EpisodeEntity episode = new EpisodeEntity();
+            episode.setEpisodeNumber(dto.getEpisodeNumber());
+            episode.setTitle(dto.getTitle());
+            episode.setRating(dto.getRating());
+            episode.setAnime(references.computeIfAbsent(episodeData.animeMalId(), this::reference));
+
+            chunk.add(episode);
+            if (chunk.size() >= batchSize) {
+                written.addAndGet(inTransaction(() -> episodeRepository.upsertAll(chunk).written()));
+                chunk.clear();
+            }
+        });
+
+        written.addAndGet(inTransaction(() -> episodeRepository.upsertAll(chunk).written()));
+
+        completeCrawls(lastEpisode);
+        return written.get();
+    }
+
+    /**
+     * Builds statistics and marks the crawl finished for every anime the
+     * snapshot had episodes for, so analyses are served without paging
+     * Jikan again.
+     */
+    private void completeCrawls(Map<Long, Integer> lastEpisode) {
+
+        List<Long> animeIds = new ArrayList<>(lastEpisode.keySet());
+
+        for (int from = 0; from < animeIds.size(); from += batchSize) {
+            List<Long> ids = animeIds.subList(from, Math.min(from + batchSize, animeIds.size()));
+
+            inTransaction(() -> {
+                List<CrawlStateEntity> states = new ArrayList<>(ids.size());
+                for (Long animeId : ids) {
+                    episodeStatsService.rebuild(animeId);
+
+                    CrawlStateEntity state = new CrawlStateEntity();
+                    state.setAnimeMalId(animeId);
+                    state.setLastPage(Math.max(1, (lastEpisode.get(animeId) + EPISODES_PER_PAGE - 1) / EPISODES_PER_PAGE));
+                    state.setHasNextPage(false);
+                    state.setUpdatedAt(Instant.now());
+                    states.add(state);
+                }
+                crawlStateRepository.saveAll(states);
+                return ids.size();
+            });
+
+            ids.forEach(episodeRatingsCache::invalidate);
+        }
+    }
+
+    // ==========================================
+    // Helpers
+    // ==========================================
+
+    /**
+     * Feeds every record of a dataset to the consumer, one at a time.
+     * A missing dataset is skipped.
+     */
+    private <T> void stream(Path directory, String dataset, Class<T> type, Consumer<T> consumer) {
+
+        Path file = findDataset(directory, dataset);
+        if (file == null) {
+            log.info("Snapshot {} has no {} dataset, skipping", directory, dataset);
+            return;
+        }
+
+        try (InputStream in = open(file);
+             MappingIterator<T> records = jsonMapper.readerFor(type).readValues(in)) {
+            // A top-level array is unwrapped, so NDJSON and JSON read the same
+            while (records.hasNext()) {
+                consumer.accept(records.next());
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read snapshot file " + file, e);
+        }
+    }
+
+    private Path findDataset(Path directory, String dataset) {
+        for (String extension : List.of(".ndjson", ".json", ".ndjson.gz", ".json.gz")) {
+            Path file = directory.resolve(dataset + extension);
+            if (Files.isRegularFile(file)) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private InputStream open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        return file.toString().endsWith(".gz") ? new GZIPInputStream(in, 64 * 1024) : in;
+    }
+
+    private AnimeEntity reference(Long animeMalId) {
+        AnimeEntity anime = new AnimeEntity();
+        anime.setMalId(animeMalId);
+        return anime;
+    }
+
+    private int inTransaction(Supplier<Integer> work) {
+        Integer written = transactionTemplate.execute(tx -> work.get());
+        return written != null ? written : 0;
+    }
+}
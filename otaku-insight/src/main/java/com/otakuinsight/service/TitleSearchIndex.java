@@ -0,0 +1,216 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.entity.AnimeEntity;
+import com.otakuinsight.repository.AnimeRepository;
+import com.otakuinsight.repository.AnimeTitleView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over every stored anime title, including the
+ * English, Japanese and synonym variants.
+ *
+ * A LIKE '%x%' scan can't use an index and can't rank, so local search
+ * lives here instead: candidates are the titles sharing enough of the
+ * query's trigrams, then each is scored as an exact, prefix, substring
+ * or fuzzy match and ties go to the higher MAL score. Every title's
+ * trigrams are computed once, at index time.
+ */
+@Component
+public class TitleSearchIndex {
+
+    public record Match(Long malId, double confidence) {
+    }
+
+    // grams.get(i) holds the trigrams of titles.get(i)
+    private record Document(Long malId, Double score, List<String> titles, List<Set<String>> grams) {
+    }
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final double EXACT = 1.0;
+    private static final double PREFIX = 0.8;
+    private static final double CONTAINS = 0.6;
+    private static final double FUZZY = 0.75;
+
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Value("${search.index.confident-match:0.9}")
+    private double confidentMatch;
+
+    // Share of the query's trigrams a candidate must have; 0.25 still
+    // keeps every title containing a query of three or more characters
+    @Value("${search.index.min-shared-grams:0.25}")
+    private double minSharedGrams;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        for (AnimeTitleView anime : animeRepository.findAllProjectedBy()) {
+            add(anime.getMalId(), anime.getScore(), anime.getTitle(),
+                    anime.getTitleEnglish(), anime.getTitleJapanese(), anime.getTitleSynonyms());
+        }
+    }
+
+    public void index(AnimeEntity anime) {
+        add(anime.getMalId(), anime.getScore(), anime.getTitle(),
+                anime.getTitleEnglish(), anime.getTitleJapanese(), anime.getTitleSynonyms());
+    }
+
+    // ==========================================
+    // Queries
+    // ==========================================
+
+    /**
+     * Best local match, but only when it is good enough that asking Jikan
+     * wouldn't give a better answer (exact title, or a prefix covering
+     * most of it).
+     */
+    public Optional<Long> findConfidentMatch(String query) {
+        List<Match> matches = search(query, 1);
+        if (matches.isEmpty() || matches.get(0).confidence() < confidentMatch) {
+            return Optional.empty();
+        }
+        return Optional.of(matches.get(0).malId());
+    }
+
+    public List<Match> search(String query, int limit) {
+
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        // Count shared trigrams per document; one common gram (a padded
+        // word start, say) doesn't make a candidate
+        Set<String> queryGrams = trigrams(normalized);
+        Map<Long, Integer> sharedGrams = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.forEach(id -> sharedGrams.merge(id, 1, Integer::sum));
+            }
+        }
+        int required = Math.max(1, (int) Math.ceil(minSharedGrams * queryGrams.size()));
+
+        List<Match> matches = new ArrayList<>();
+        sharedGrams.forEach((candidate, shared) -> {
+            Document document = shared >= required ? documents.get(candidate) : null;
+            if (document != null) {
+                matches.add(new Match(document.malId(), rank(normalized, queryGrams, document)));
+            }
+        });
+
+        matches.sort(Comparator.comparingDouble(Match::confidence).reversed()
+                .thenComparing(match -> documents.get(match.malId()).score(),
+                        Comparator.nullsLast(Comparator.reverseOrder())));
+
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private double rank(String query, Set<String> queryGrams, Document document) {
+
+        double best = 0.0;
+
+        for (int i = 0; i < document.titles().size(); i++) {
+            String title = document.titles().get(i);
+            double coverage = (double) query.length() / Math.max(title.length(), query.length());
+
+            double confidence;
+            if (title.equals(query)) {
+                confidence = EXACT;
+            } else if (title.startsWith(query)) {
+                confidence = PREFIX + 0.2 * coverage;
+            } else if (title.contains(query)) {
+                confidence = CONTAINS + 0.2 * coverage;
+            } else {
+                // Dice coefficient on trigrams - typos, word order, romanisation
+                Set<String> titleGrams = document.grams().get(i);
+                long sharedGrams = titleGrams.stream().filter(queryGrams::contains).count();
+                confidence = FUZZY * (2.0 * sharedGrams / (queryGrams.size() + titleGrams.size()));
+            }
+
+            best = Math.max(best, confidence);
+        }
+
+        return best;
+    }
+
+    // ==========================================
+    // Indexing
+    // ==========================================
+
+    private void add(Long malId, Double score, String... rawTitles) {
+
+        Set<String> titles = new LinkedHashSet<>();
+        for (String raw : rawTitles) {
+            if (raw == null) continue;
+            // Synonyms are stored one per line
+            for (String line : raw.split("\n")) {
+                String normalized = normalize(line);
+                if (!normalized.isEmpty()) {
+                    titles.add(normalized);
+                }
+            }
+        }
+
+        List<Set<String>> grams = titles.stream()
+                .map(title -> Set.copyOf(trigrams(title)))
+                .toList();
+
+        Document previous = documents.put(malId, new Document(malId, score, List.copyOf(titles), grams));
+        if (previous != null) {
+            for (Set<String> titleGrams : previous.grams()) {
+                for (String gram : titleGrams) {
+                    Set<Long> ids = postings.get(gram);
+                    if (ids != null) {
+                        ids.remove(malId);
+                    }
+                }
+            }
+        }
+
+        for (Set<String> titleGrams : grams) {
+            for (String gram : titleGrams) {
+                postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(malId);
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+        return NON_WORD.matcher(stripped.toLowerCase()).replaceAll(" ").trim();
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        // Padded so short queries and word starts still produce grams
+        String padded = "  " + normalized + " ";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+}
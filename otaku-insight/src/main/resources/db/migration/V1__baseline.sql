@@ -0,0 +1,27 @@
+-- Schema as of the switch from ddl-auto=update to versioned migrations:
+-- the anime and episodes tables as the original entities created them.
+-- Databases that ddl-auto already created are baselined at this version
+-- (spring.flyway.baseline-on-migrate) instead of running it, and pick up
+-- everything added since from V2 onwards.
+
+create table anime (
+    mal_id bigint not null,
+    title varchar(255),
+    episodes integer,
+    score float(53),
+    status varchar(255),
+    image_url varchar(500),
+    year integer,
+    synopsis text,
+    primary key (mal_id)
+);
+
+create table episodes (
+    id bigint not null auto_increment,
+    anime_mal_id bigint,
+    episode_number integer,
+    title varchar(255),
+    rating float(53),
+    primary key (id),
+    constraint fk_episodes_anime foreign key (anime_mal_id) references anime (mal_id)
+);
@@ -0,0 +1,19 @@
+-- One row per episode, so ingestion can upsert on (anime_mal_id, episode_number).
+-- Re-ingesting used to append a second row for an episode already stored;
+-- keep the newest of each and drop the rest before adding the key.
+-- The extra derived table lets MySQL delete from a table the subquery reads.
+
+delete from episodes
+where id in (
+    select id from (
+        select older.id
+        from episodes older
+        join episodes newer
+          on newer.anime_mal_id = older.anime_mal_id
+         and newer.episode_number = older.episode_number
+         and newer.id > older.id
+    ) duplicates
+);
+
+alter table episodes
+    add constraint uk_episodes_anime_episode unique (anime_mal_id, episode_number);
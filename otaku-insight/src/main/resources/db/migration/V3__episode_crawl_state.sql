@@ -0,0 +1,9 @@
+-- Where each anime's episode crawl stopped (see EpisodeCrawlStateEntity)
+
+create table episode_crawl_state (
+    anime_mal_id bigint not null,
+    last_page integer,
+    has_next_page bit,
+    updated_at datetime(6),
+    primary key (anime_mal_id)
+);
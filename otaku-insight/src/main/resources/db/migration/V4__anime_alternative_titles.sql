@@ -0,0 +1,5 @@
+-- English, Japanese and synonym titles, used by search
+
+alter table anime add column title_english varchar(255);
+alter table anime add column title_japanese varchar(255);
+alter table anime add column title_synonyms text;
@@ -0,0 +1,21 @@
+-- Running per-anime episode statistics (see EpisodeStatsService).
+-- A row is built from the episodes table the next time that anime's
+-- episodes are written, so nothing is backfilled here.
+
+create table episode_stats (
+    anime_mal_id bigint not null,
+    episode_count integer,
+    rating_sum float(53),
+    rating_sum_squares float(53),
+    min_rating float(53),
+    min_episode_number integer,
+    min_episode_title varchar(255),
+    max_rating float(53),
+    max_episode_number integer,
+    max_episode_title varchar(255),
+    episodes_above_9 integer,
+    episodes_above_8 integer,
+    histogram varchar(200),
+    updated_at datetime(6),
+    primary key (anime_mal_id)
+);
@@ -0,0 +1,20 @@
+-- Source manga and the anime adapted from them (see MangaService)
+
+create table manga (
+    mal_id bigint not null,
+    title varchar(255),
+    chapters integer,
+    volumes integer,
+    status varchar(255),
+    primary key (mal_id)
+);
+
+create table anime_adaptations (
+    id bigint not null auto_increment,
+    anime_mal_id bigint,
+    position integer,
+    manga_mal_id bigint,
+    manga_name varchar(255),
+    primary key (id),
+    constraint uk_anime_adaptations_anime_position unique (anime_mal_id, position)
+);
@@ -0,0 +1,11 @@
+-- Leaderboards (see LeaderboardRepository). V8 fills in the stored
+-- average and standard deviation for existing rows.
+
+alter table episode_stats add column average_rating float(53);
+alter table episode_stats add column rating_stddev float(53);
+
+create index idx_anime_year_score on anime (year, score desc, mal_id);
+create index idx_anime_score on anime (score desc, mal_id);
+create index idx_episodes_rating on episodes (rating desc, anime_mal_id, episode_number);
+create index idx_episodes_anime_rating on episodes (anime_mal_id, rating);
+create index idx_episode_stats_stddev on episode_stats (rating_stddev, anime_mal_id);
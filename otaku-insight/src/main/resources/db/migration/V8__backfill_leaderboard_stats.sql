@@ -0,0 +1,8 @@
+-- Average and standard deviation for stats rows written before V7 added
+-- the columns. Runs once here rather than at every startup.
+
+update episode_stats
+set average_rating = rating_sum / episode_count,
+    rating_stddev = sqrt(greatest(0, rating_sum_squares / episode_count
+        - (rating_sum / episode_count) * (rating_sum / episode_count)))
+where average_rating is null and episode_count > 0;
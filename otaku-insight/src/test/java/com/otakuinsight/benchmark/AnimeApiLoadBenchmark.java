@@ -0,0 +1,133 @@
+package com.otakuinsight.benchmark;
+
+import com.otakuinsight.OtakuInsightApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load against AnimeController over real HTTP, with Jikan
+ * replaced by a local stub. Eight client threads hit each scenario:
+ *
+ *   cached*      - hot entries answered from the in-memory caches
+ *   conditional* - revalidation with If-None-Match, answered with 304
+ *   coldAnalysis - a never-seen anime every call: upstream fetch, episode
+ *                  upsert, stats and analysis
+ *
+ *   mvn -Pbenchmark verify -Djmh.args="AnimeApiLoadBenchmark -p upstreamLatencyMs=0"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class AnimeApiLoadBenchmark {
+
+	private static final long HOT_ANIME_ID = 5114;
+
+	@Param({"25"})
+	private long upstreamLatencyMs;
+
+	private StubJikanServer jikan;
+	private ConfigurableApplicationContext context;
+	private HttpClient client;
+	private String baseUrl;
+
+	private String analysisETag;
+	private final AtomicLong nextColdId = new AtomicLong(1_000_000);
+
+	@Setup(Level.Trial)
+	public void start() throws IOException, InterruptedException {
+		jikan = new StubJikanServer(upstreamLatencyMs);
+
+		context = new SpringApplicationBuilder(OtakuInsightApplication.class)
+				.properties(BenchmarkSupport.WEB_CONTEXT)
+				.properties("jikan.base-url=" + jikan.baseUrl())
+				.run();
+
+		baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port") + "/api/anime";
+		client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+		// Prime the hot entries once so the cached scenarios never miss
+		send(get("/search?name=Fullmetal%20Alchemist"), 200);
+		analysisETag = send(get("/" + HOT_ANIME_ID + "/episodes/analysis"), 200)
+				.headers().firstValue("ETag").orElseThrow();
+		send(get("/" + HOT_ANIME_ID + "/manga-info"), 200);
+	}
+
+	@Benchmark
+	public int cachedSearch() throws IOException, InterruptedException {
+		return send(get("/search?name=Fullmetal%20Alchemist"), 200).statusCode();
+	}
+
+	@Benchmark
+	public int cachedAnalysis() throws IOException, InterruptedException {
+		return send(get("/" + HOT_ANIME_ID + "/episodes/analysis"), 200).statusCode();
+	}
+
+	@Benchmark
+	public int cachedMangaInfo() throws IOException, InterruptedException {
+		return send(get("/" + HOT_ANIME_ID + "/manga-info"), 200).statusCode();
+	}
+
+	@Benchmark
+	public int conditionalAnalysis() throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + HOT_ANIME_ID + "/episodes/analysis"))
+				.header("If-None-Match", analysisETag)
+				.build();
+		return send(request, 304).statusCode();
+	}
+
+	@Benchmark
+	public int coldAnalysis() throws IOException, InterruptedException {
+		return send(get("/" + nextColdId.getAndIncrement() + "/episodes/analysis"), 200).statusCode();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+		jikan.close();
+	}
+
+	// ==========================================
+	// Helpers
+	// ==========================================
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path)).build();
+	}
+
+	private HttpResponse<byte[]> send(HttpRequest request, int expectedStatus)
+			throws IOException, InterruptedException {
+		HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+		if (response.statusCode() != expectedStatus) {
+			// A benchmark quietly measuring 404s is worse than one that fails
+			throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+		}
+		return response;
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.otakuinsight.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Shared settings for benchmarks that boot the application context.
+ */
+final class BenchmarkSupport {
+
+	/** Embedded H2 from the test profile, no web server and no SQL logging. */
+	static final String[] QUIET_CONTEXT = {
+			"spring.main.web-application-type=none",
+			"spring.main.banner-mode=off",
+			"spring.jpa.show-sql=false",
+			"logging.level.root=WARN"
+	};
+
+	/**
+	 * Full servlet stack on a random port, with the Jikan rate limits
+	 * lifted so the stub upstream is the only thing throttling misses.
+	 */
+	static final String[] WEB_CONTEXT = {
+			"server.port=0",
+			"spring.main.banner-mode=off",
+			"spring.jpa.show-sql=false",
+			"logging.level.root=WARN",
+			"jikan.rate-limit.per-second=100000",
+			"jikan.rate-limit.per-minute=6000000",
+			"jikan.http.max-concurrent-requests=64"
+	};
+
+	private BenchmarkSupport() {
+	}
+
+	/** Reads a Jikan response fixture from src/test/resources/fixtures/jikan. */
+	static byte[] fixture(String name) throws IOException {
+		try (InputStream in = BenchmarkSupport.class.getResourceAsStream("/fixtures/jikan/" + name)) {
+			if (in == null) {
+				throw new IOException("Missing fixture: " + name);
+			}
+			return in.readAllBytes();
+		}
+	}
+
+}
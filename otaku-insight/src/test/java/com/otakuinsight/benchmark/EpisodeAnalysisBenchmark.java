@@ -0,0 +1,109 @@
+package com.otakuinsight.benchmark;
+
+import com.otakuinsight.dto.EpisodeDTO;
+import com.otakuinsight.dto.EpisodeTrendsDTO;
+import com.otakuinsight.entity.EpisodeStatsEntity;
+import com.otakuinsight.repository.EpisodeRatings;
+import com.otakuinsight.service.EpisodeStatsAggregator;
+import com.otakuinsight.service.EpisodeTrendAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a show's episode ratings into an analysis, from a
+ * single-cour show to a long runner.
+ *
+ * buildAnalysis itself only reads the precomputed stats row now, so the
+ * work measured here is what feeds that row: a full rebuild, the
+ * incremental update when one episode is re-scored, and the stream
+ * pipeline the analysis used to run over every episode as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EpisodeAnalysisBenchmark {
+
+	@Param({"12", "500", "5000"})
+	private int episodeCount;
+
+	private List<EpisodeDTO> episodes;
+	private EpisodeStatsEntity stats;
+	private EpisodeRatings ratings;
+
+	@Setup
+	public void prepareEpisodes() {
+		episodes = new ArrayList<>(episodeCount);
+		for (int i = 1; i <= episodeCount; i++) {
+			EpisodeDTO episode = new EpisodeDTO();
+			episode.setEpisodeNumber(i);
+			episode.setTitle("Episode " + i);
+			episode.setRating(EpisodeStatsAggregator.toTenPointScale(3.5 + (i % 15) / 10.0));
+			episodes.add(episode);
+		}
+
+		stats = new EpisodeStatsEntity();
+		fullRebuild().writeTo(stats);
+
+		EpisodeRatings.Builder builder = new EpisodeRatings.Builder();
+		for (int i = 1; i <= episodeCount; i++) {
+			builder.add(i, 3.5 + (i % 15) / 10.0);
+		}
+		ratings = builder.build();
+	}
+
+	@Benchmark
+	public EpisodeStatsAggregator fullRebuild() {
+		EpisodeStatsAggregator aggregator = new EpisodeStatsAggregator();
+		for (EpisodeDTO episode : episodes) {
+			aggregator.add(episode.getEpisodeNumber(), episode.getTitle(), episode.getRating());
+		}
+		return aggregator;
+	}
+
+	@Benchmark
+	public EpisodeStatsEntity rescoreOneEpisode() {
+		// Middle episode is never an extreme, so this stays incremental
+		EpisodeDTO episode = episodes.get(episodeCount / 2);
+
+		EpisodeStatsAggregator aggregator = EpisodeStatsAggregator.from(stats);
+		aggregator.remove(episode.getEpisodeNumber(), episode.getRating());
+		aggregator.add(episode.getEpisodeNumber(), episode.getTitle(), episode.getRating());
+
+		EpisodeStatsEntity updated = new EpisodeStatsEntity();
+		aggregator.writeTo(updated);
+		return updated;
+	}
+
+	@Benchmark
+	public EpisodeTrendsDTO trends() {
+		return EpisodeTrendAnalyzer.analyze(ratings, 5, 12, 100, 5, 0.3);
+	}
+
+	@Benchmark
+	public Object[] legacyStreams() {
+		double average = episodes.stream().mapToDouble(EpisodeDTO::getRating).average().orElse(0.0);
+		EpisodeDTO highest = episodes.stream().max(Comparator.comparing(EpisodeDTO::getRating)).orElse(null);
+		EpisodeDTO lowest = episodes.stream().min(Comparator.comparing(EpisodeDTO::getRating)).orElse(null);
+		long above9 = episodes.stream().filter(e -> e.getRating() >= 9.0).count();
+		long above8 = episodes.stream().filter(e -> e.getRating() >= 8.0).count();
+		return new Object[] {average, highest, lowest, above9, above8};
+	}
+
+}
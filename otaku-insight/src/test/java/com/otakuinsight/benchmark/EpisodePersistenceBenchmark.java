@@ -0,0 +1,96 @@
+package com.otakuinsight.benchmark;
+
+import com.otakuinsight.OtakuInsightApplication;
+import com.otakuinsight.entity.AnimeEntity;
+import com.otakuinsight.entity.EpisodeEntity;
+import com.otakuinsight.repository.AnimeRepository;
+import com.otakuinsight.repository.EpisodeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert time for a freshly crawled show against embedded H2: the batched
+ * upsert used by AnimeService versus the old save()-per-episode loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EpisodePersistenceBenchmark {
+
+	@Param({"1000", "10000"})
+	private int episodeCount;
+
+	private ConfigurableApplicationContext context;
+	private AnimeRepository animeRepository;
+	private EpisodeRepository episodeRepository;
+
+	private long nextAnimeId = 1;
+	private List<EpisodeEntity> episodes;
+
+	@Setup(Level.Trial)
+	public void startContext() {
+		context = new SpringApplicationBuilder(OtakuInsightApplication.class)
+				.properties(BenchmarkSupport.QUIET_CONTEXT)
+				.run();
+		animeRepository = context.getBean(AnimeRepository.class);
+		episodeRepository = context.getBean(EpisodeRepository.class);
+	}
+
+	@Setup(Level.Invocation)
+	public void prepareShow() {
+		// Every shot writes a brand-new show, so nothing is an update
+		AnimeEntity anime = new AnimeEntity();
+		anime.setMalId(nextAnimeId++);
+		anime.setTitle("Benchmark Show " + anime.getMalId());
+		animeRepository.save(anime);
+
+		episodes = new ArrayList<>(episodeCount);
+		for (int i = 1; i <= episodeCount; i++) {
+			EpisodeEntity episode = new EpisodeEntity();
+			episode.setAnime(anime);
+			episode.setEpisodeNumber(i);
+			episode.setTitle("Episode " + i);
+			episode.setRating(3.5 + (i % 15) / 10.0);
+			episodes.add(episode);
+		}
+	}
+
+	@Benchmark
+	public int batchedUpsert() {
+		return episodeRepository.upsertAll(episodes).written();
+	}
+
+	@Benchmark
+	public int perRowSave() {
+		for (EpisodeEntity episode : episodes) {
+			episodeRepository.save(episode);
+		}
+		return episodes.size();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopContext() {
+		context.close();
+	}
+
+}
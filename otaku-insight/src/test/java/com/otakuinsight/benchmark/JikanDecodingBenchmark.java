@@ -0,0 +1,150 @@
+package com.otakuinsight.benchmark;
+
+import com.otakuinsight.dto.AnimeDTO;
+import com.otakuinsight.dto.EpisodeDTO;
+import com.otakuinsight.external.JikanClient;
+import com.otakuinsight.external.model.JikanAnime;
+import com.otakuinsight.external.model.JikanEpisode;
+import com.otakuinsight.external.model.JikanResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse latency of Jikan responses: the old untyped Map path against the
+ * typed records JikanClient decodes into now. Run with the GC profiler to
+ * compare allocation per response:
+ *
+ *   mvn -Pbenchmark verify -Djmh.args="JikanDecodingBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JikanDecodingBenchmark {
+
+	private static final TypeReference<JikanResponse<List<JikanAnime>>> ANIME_LIST =
+			new TypeReference<>() {};
+	private static final TypeReference<JikanResponse<List<JikanEpisode>>> EPISODE_PAGE =
+			new TypeReference<>() {};
+
+	private final JsonMapper mapper = JsonMapper.builder().build();
+
+	private byte[] searchResponse;
+	private byte[] episodePage;
+
+	@Setup
+	public void loadFixtures() throws IOException {
+		searchResponse = BenchmarkSupport.fixture("anime-search.json");
+		episodePage = BenchmarkSupport.fixture("anime-episodes.json");
+	}
+
+	@Benchmark
+	public AnimeDTO searchResponseAsMap() {
+		Map<String, Object> response = mapper.readValue(searchResponse, Map.class);
+		List<Map<String, Object>> data = (List<Map<String, Object>>) response.get("data");
+		return LegacyMapping.mapToAnimeDTO(data.get(0));
+	}
+
+	@Benchmark
+	public AnimeDTO searchResponseTyped() {
+		JikanResponse<List<JikanAnime>> response = mapper.readValue(searchResponse, ANIME_LIST);
+		return JikanClient.mapToAnimeDTO(response.data().get(0));
+	}
+
+	@Benchmark
+	public List<EpisodeDTO> episodePageAsMap() {
+		Map<String, Object> response = mapper.readValue(episodePage, Map.class);
+		List<Map<String, Object>> data = (List<Map<String, Object>>) response.get("data");
+
+		List<EpisodeDTO> episodes = new ArrayList<>(data.size());
+		for (Map<String, Object> episodeData : data) {
+			EpisodeDTO episode = LegacyMapping.mapToEpisodeDTO(episodeData);
+			if (episode != null) {
+				episodes.add(episode);
+			}
+		}
+		return episodes;
+	}
+
+	@Benchmark
+	public List<EpisodeDTO> episodePageTyped() {
+		JikanResponse<List<JikanEpisode>> response = mapper.readValue(episodePage, EPISODE_PAGE);
+
+		List<EpisodeDTO> episodes = new ArrayList<>(response.data().size());
+		for (JikanEpisode episodeData : response.data()) {
+			EpisodeDTO episode = JikanClient.mapToEpisodeDTO(episodeData);
+			if (episode != null) {
+				episodes.add(episode);
+			}
+		}
+		return episodes;
+	}
+
+	/**
+	 * The Map-based mapping JikanClient used before typed decoding, kept
+	 * here as the baseline.
+	 */
+	@SuppressWarnings("unchecked")
+	private static final class LegacyMapping {
+
+		static AnimeDTO mapToAnimeDTO(Map<String, Object> animeData) {
+			AnimeDTO dto = new AnimeDTO();
+			dto.setMalId(((Number) animeData.get("mal_id")).longValue());
+			dto.setTitle((String) animeData.get("title"));
+			if (animeData.get("episodes") != null) {
+				dto.setEpisodes(((Number) animeData.get("episodes")).intValue());
+			}
+			if (animeData.get("score") != null) {
+				dto.setScore(((Number) animeData.get("score")).doubleValue());
+			}
+			dto.setSynopsis((String) animeData.get("synopsis"));
+			dto.setStatus((String) animeData.get("status"));
+
+			Map<String, Object> images = (Map<String, Object>) animeData.get("images");
+			if (images != null && images.get("jpg") != null) {
+				dto.setImageUrl((String) ((Map<String, Object>) images.get("jpg")).get("image_url"));
+			}
+
+			Map<String, Object> aired = (Map<String, Object>) animeData.get("aired");
+			if (aired != null && aired.get("prop") != null) {
+				Map<String, Object> from = (Map<String, Object>) ((Map<String, Object>) aired.get("prop")).get("from");
+				if (from != null && from.get("year") != null) {
+					dto.setYear(((Number) from.get("year")).intValue());
+				}
+			}
+			return dto;
+		}
+
+		static EpisodeDTO mapToEpisodeDTO(Map<String, Object> episodeData) {
+			if (episodeData.get("score") == null) {
+				return null;
+			}
+			EpisodeDTO dto = new EpisodeDTO();
+			if (episodeData.get("mal_id") != null) {
+				dto.setEpisodeNumber(((Number) episodeData.get("mal_id")).intValue());
+			}
+			dto.setTitle((String) episodeData.get("title"));
+			dto.setRating(((Number) episodeData.get("score")).doubleValue());
+			return dto;
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.otakuinsight.benchmark;
+
+import com.otakuinsight.dto.AnimeDTO;
+import com.otakuinsight.dto.EpisodeDTO;
+import com.otakuinsight.external.JikanClient;
+import com.otakuinsight.external.model.JikanAnime;
+import com.otakuinsight.external.model.JikanEpisode;
+import com.otakuinsight.external.model.JikanResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record-to-DTO mapping on its own, with decoding done once up front.
+ * JikanDecodingBenchmark covers parse + map together; this isolates the
+ * share of it spent in mapToAnimeDTO / mapToEpisodeDTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+	private List<JikanAnime> searchResults;
+	private JikanAnime animeById;
+	private List<JikanEpisode> episodePage;
+
+	@Setup
+	public void decodeFixtures() throws IOException {
+		JsonMapper mapper = JsonMapper.builder().build();
+
+		searchResults = mapper.readValue(BenchmarkSupport.fixture("anime-search.json"),
+				new TypeReference<JikanResponse<List<JikanAnime>>>() {}).data();
+		animeById = mapper.readValue(BenchmarkSupport.fixture("anime-by-id.json"),
+				new TypeReference<JikanResponse<JikanAnime>>() {}).data();
+		episodePage = mapper.readValue(BenchmarkSupport.fixture("anime-episodes.json"),
+				new TypeReference<JikanResponse<List<JikanEpisode>>>() {}).data();
+	}
+
+	@Benchmark
+	public AnimeDTO mapAnime() {
+		return JikanClient.mapToAnimeDTO(animeById);
+	}
+
+	@Benchmark
+	public List<AnimeDTO> mapSearchPage() {
+		List<AnimeDTO> anime = new ArrayList<>(searchResults.size());
+		for (JikanAnime animeData : searchResults) {
+			anime.add(JikanClient.mapToAnimeDTO(animeData));
+		}
+		return anime;
+	}
+
+	@Benchmark
+	public List<EpisodeDTO> mapEpisodePage() {
+		List<EpisodeDTO> episodes = new ArrayList<>(episodePage.size());
+		for (JikanEpisode episodeData : episodePage) {
+			EpisodeDTO episode = JikanClient.mapToEpisodeDTO(episodeData);
+			if (episode != null) {
+				episodes.add(episode);
+			}
+		}
+		return episodes;
+	}
+
+}
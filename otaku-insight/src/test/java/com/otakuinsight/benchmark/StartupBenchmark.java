@@ -0,0 +1,284 @@
+package com.otakuinsight.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+/**
+ * Cold start of the packaged application, the way a scale-from-zero
+ * deployment sees it: time from launching the JVM to the first served
+ * GET /api/anime/search, and the process RSS at that moment.
+ *
+ * Not a JMH benchmark - every sample is a fresh JVM. The jar is
+ * extracted (java -Djarmode=tools) and launched against in-memory H2
+ * and a local StubJikanServer, in each of these modes:
+ *
+ *   default       no profile (Hibernate ddl-auto, eager beans)
+ *   prod          prod profile (Flyway, lazy init, no JDBC metadata)
+ *   prod-aot      prod + -Dspring.aot.enabled=true
+ *   prod-aot-cds  prod-aot + a CDS archive from a training run
+ *
+ * The aot modes need a jar built with -Paot and are skipped otherwise.
+ * Arguments are key=value: jar, result (JSON file), runs, modes.
+ */
+public final class StartupBenchmark {
+
+	private static final String SEARCH_PATH = "/api/anime/search?name=Fullmetal%20Alchemist";
+	private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+	private static final String AOT_INITIALIZER = "com/otakuinsight/OtakuInsightApplication__ApplicationContextInitializer.class";
+
+	private record Sample(double firstSearchMillis, double rssMegabytes) {
+	}
+
+	private final Path javaBin = Path.of(System.getProperty("java.home"), "bin", "java");
+	private final Path workDir;
+	private final Path appJar;
+	private final String classpath;
+	private final StubJikanServer jikan;
+
+	private StartupBenchmark(Path jar, StubJikanServer jikan) throws IOException, InterruptedException {
+		this.jikan = jikan;
+		this.workDir = jar.resolveSibling("startup-benchmark");
+
+		// CDS only archives classes from jars, so run the extracted layout
+		run(List.of(javaBin.toString(), "-Djarmode=tools", "-jar", jar.toString(),
+				"extract", "--destination", workDir.resolve("app").toString(), "--force"), workDir.resolve("extract.log"));
+		this.appJar = workDir.resolve("app").resolve(jar.getFileName());
+
+		// The packaged jar has no H2; take it from the test classpath
+		String h2 = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+				.filter(entry -> entry.contains("h2database"))
+				.findFirst()
+				.orElseThrow(() -> new IllegalStateException("H2 not on the classpath"));
+		this.classpath = appJar + File.pathSeparator + h2;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>();
+		for (String arg : args) {
+			String[] pair = arg.split("=", 2);
+			options.put(pair[0], pair.length > 1 ? pair[1] : "");
+		}
+
+		Path jar = Path.of(required(options, "jar"));
+		int runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+		List<String> modes = List.of(options.getOrDefault("modes", "default,prod,prod-aot,prod-aot-cds").split(","));
+
+		try (StubJikanServer jikan = new StubJikanServer(0)) {
+			StartupBenchmark benchmark = new StartupBenchmark(jar, jikan);
+			boolean aotBuilt = benchmark.hasAotInitializer();
+
+			Map<String, List<Sample>> results = new LinkedHashMap<>();
+			for (String mode : modes) {
+				if (mode.startsWith("prod-aot") && !aotBuilt) {
+					System.out.println("Skipping " + mode + ": jar was built without -Paot");
+					continue;
+				}
+				results.put(mode, benchmark.measure(mode, runs));
+			}
+
+			report(results);
+			if (options.containsKey("result")) {
+				writeJson(Path.of(options.get("result")), results);
+			}
+		}
+	}
+
+	// ==========================================
+	// Runs
+	// ==========================================
+
+	private List<Sample> measure(String mode, int runs) throws IOException, InterruptedException {
+		if (mode.endsWith("-cds")) {
+			train(mode);
+		}
+
+		List<Sample> samples = new ArrayList<>();
+		for (int i = 1; i <= runs; i++) {
+			samples.add(coldStart(mode, workDir.resolve(mode + "-" + i + ".log")));
+		}
+		return samples;
+	}
+
+	/**
+	 * Records the CDS archive: start, refresh the context, exit. Trained
+	 * the way the Dockerfile has to (no database at build time): without
+	 * AOT, which would run Flyway unconditionally, and with Flyway off.
+	 */
+	private void train(String mode) throws IOException, InterruptedException {
+		List<String> command = command(mode, freePort(), true);
+		int exit = run(command, workDir.resolve(mode + "-training.log"));
+		if (exit != 0) {
+			throw new IllegalStateException("CDS training run failed, see " + workDir.resolve(mode + "-training.log"));
+		}
+	}
+
+	private Sample coldStart(String mode, Path log) throws IOException, InterruptedException {
+		int port = freePort();
+		URI search = URI.create("http://127.0.0.1:" + port + SEARCH_PATH);
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command(mode, port, false))
+				.redirectErrorStream(true)
+				.redirectOutput(log.toFile())
+				.start();
+		try {
+			while (true) {
+				if (!process.isAlive() || System.nanoTime() - start > STARTUP_TIMEOUT.toNanos()) {
+					throw new IllegalStateException(mode + " did not serve a search, see " + log);
+				}
+				try {
+					HttpResponse<Void> response = client.send(HttpRequest.newBuilder(search).build(),
+							HttpResponse.BodyHandlers.discarding());
+					if (response.statusCode() == 200) {
+						break;
+					}
+				} catch (ConnectException e) {
+					// Not listening yet
+				}
+				Thread.sleep(5);
+			}
+			double millis = (System.nanoTime() - start) / 1_000_000.0;
+			return new Sample(millis, rssMegabytes(process.pid()));
+
+		} finally {
+			process.destroy();
+			if (!process.waitFor(10, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	private List<String> command(String mode, int port, boolean training) {
+		List<String> command = new ArrayList<>(List.of(javaBin.toString()));
+
+		if (mode.endsWith("-cds")) {
+			Path archive = workDir.resolve(mode + ".jsa");
+			command.add(training ? "-XX:ArchiveClassesAtExit=" + archive : "-XX:SharedArchiveFile=" + archive);
+		}
+		if (mode.startsWith("prod-aot") && !training) {
+			command.add("-Dspring.aot.enabled=true");
+		}
+		if (training) {
+			command.add("-Dspring.context.exit=onRefresh");
+		}
+
+		command.addAll(List.of("-cp", classpath, "com.otakuinsight.OtakuInsightApplication"));
+		if (mode.startsWith("prod")) {
+			command.add("--spring.profiles.active=prod");
+		}
+		if (training) {
+			command.add("--spring.flyway.enabled=false");
+		}
+
+		// Same for every mode: a fresh in-memory database and the stub upstream
+		command.addAll(List.of(
+				"--server.port=" + port,
+				"--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;NON_KEYWORDS=YEAR;DB_CLOSE_DELAY=-1",
+				"--spring.datasource.driver-class-name=org.h2.Driver",
+				"--spring.datasource.username=sa",
+				"--spring.datasource.password=",
+				"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+				"--jikan.base-url=" + jikan.baseUrl(),
+				"--spring.main.banner-mode=off",
+				"--management.tracing.sampling.probability=0"));
+		return command;
+	}
+
+	private boolean hasAotInitializer() throws IOException {
+		try (JarFile jar = new JarFile(appJar.toFile())) {
+			return jar.getEntry(AOT_INITIALIZER) != null;
+		}
+	}
+
+	// ==========================================
+	// Helpers
+	// ==========================================
+
+	private static int run(List<String> command, Path log) throws IOException, InterruptedException {
+		Files.createDirectories(log.getParent());
+		Process process = new ProcessBuilder(command)
+				.redirectErrorStream(true)
+				.redirectOutput(log.toFile())
+				.start();
+		if (!process.waitFor(STARTUP_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+			process.destroyForcibly();
+			throw new IllegalStateException("Timed out: " + String.join(" ", command));
+		}
+		return process.exitValue();
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	// Linux only; NaN elsewhere
+	private static double rssMegabytes(long pid) {
+		try {
+			for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+				if (line.startsWith("VmRSS:")) {
+					return Long.parseLong(line.replaceAll("\\D", "")) / 1024.0;
+				}
+			}
+		} catch (IOException | NumberFormatException e) {
+			// fall through
+		}
+		return Double.NaN;
+	}
+
+	private static double median(List<Double> values) {
+		List<Double> sorted = values.stream().sorted().toList();
+		int middle = sorted.size() / 2;
+		return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+	}
+
+	private static void report(Map<String, List<Sample>> results) {
+		System.out.printf("%n%-14s %22s %16s%n", "mode", "first search (ms, p50)", "RSS (MB, p50)");
+		results.forEach((mode, samples) -> System.out.printf("%-14s %22.0f %16.1f%n", mode,
+				median(samples.stream().map(Sample::firstSearchMillis).toList()),
+				median(samples.stream().map(Sample::rssMegabytes).toList())));
+	}
+
+	private static void writeJson(Path file, Map<String, List<Sample>> results) throws IOException {
+		String json = results.entrySet().stream()
+				.map(entry -> String.format(Locale.ROOT,
+						"  {\"mode\": \"%s\", \"firstSearchMillis\": %s, \"rssMegabytes\": %s}",
+						entry.getKey(),
+						entry.getValue().stream().map(s -> String.format(Locale.ROOT, "%.1f", s.firstSearchMillis()))
+								.collect(Collectors.joining(", ", "[", "]")),
+						entry.getValue().stream().map(s -> String.format(Locale.ROOT, "%.1f", s.rssMegabytes()))
+								.collect(Collectors.joining(", ", "[", "]"))))
+				.collect(Collectors.joining(",\n", "[\n", "\n]\n"));
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, json);
+		System.out.println("Results written to " + file);
+	}
+
+	private static String required(Map<String, String> options, String key) {
+		String value = options.get(key);
+		if (value == null || value.isEmpty()) {
+			throw new IllegalArgumentException("Missing " + key + "=...");
+		}
+		return value;
+	}
+}
@@ -0,0 +1,118 @@
+package com.otakuinsight.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for api.jikan.moe serving the recorded fixtures, with
+ * a fixed delay per response so load runs see upstream latency without
+ * touching the real API (or its rate limits).
+ *
+ * Any anime id resolves: the by-id fixture comes back with the requested
+ * mal_id, and episode lists are a single 100-episode page.
+ */
+final class StubJikanServer implements AutoCloseable {
+
+	private static final Pattern ANIME = Pattern.compile("/v4/anime/(\\d+)");
+	private static final Pattern EPISODES = Pattern.compile("/v4/anime/\\d+/episodes");
+	private static final Pattern RELATIONS = Pattern.compile("/v4/anime/\\d+/relations");
+	private static final Pattern MANGA = Pattern.compile("/v4/manga/\\d+");
+	private static final Pattern FIRST_MAL_ID = Pattern.compile("\"mal_id\":\\s*\\d+");
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final long latencyMillis;
+
+	private final String animeById;
+	private final byte[] search;
+	private final byte[] episodes;
+	private final byte[] relations;
+	private final byte[] manga;
+
+	StubJikanServer(long latencyMillis) throws IOException {
+		this.latencyMillis = latencyMillis;
+
+		animeById = new String(BenchmarkSupport.fixture("anime-by-id.json"), StandardCharsets.UTF_8);
+		search = BenchmarkSupport.fixture("anime-search.json");
+		episodes = new String(BenchmarkSupport.fixture("anime-episodes.json"), StandardCharsets.UTF_8)
+				.replace("\"has_next_page\": true", "\"has_next_page\": false")
+				.getBytes(StandardCharsets.UTF_8);
+		relations = BenchmarkSupport.fixture("anime-relations.json");
+		manga = BenchmarkSupport.fixture("manga-by-id.json");
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(executor);
+		server.createContext("/v4/", this::handle);
+		server.start();
+	}
+
+	/** Value for jikan.base-url. */
+	String baseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/v4";
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			String path = exchange.getRequestURI().getPath();
+
+			byte[] body;
+			Matcher anime = ANIME.matcher(path);
+			if (path.equals("/v4/anime")) {
+				body = search;
+			} else if (EPISODES.matcher(path).matches()) {
+				body = episodes;
+			} else if (RELATIONS.matcher(path).matches()) {
+				body = relations;
+			} else if (MANGA.matcher(path).matches()) {
+				body = manga;
+			} else if (anime.matches()) {
+				body = FIRST_MAL_ID.matcher(animeById)
+						.replaceFirst("\"mal_id\": " + anime.group(1))
+						.getBytes(StandardCharsets.UTF_8);
+			} else {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+
+			sleep();
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		}
+	}
+
+	private void sleep() {
+		if (latencyMillis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(latencyMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+		try {
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.otakuinsight.controller;
+
+import com.otakuinsight.dto.EpisodeAnalysisDTO;
+import com.otakuinsight.dto.EpisodeTrendsDTO;
+import com.otakuinsight.external.UpstreamTimeoutException;
+import com.otakuinsight.external.UpstreamUnavailableException;
+import com.otakuinsight.service.AnimeService;
+import com.otakuinsight.service.ContentVersions;
+import com.otakuinsight.service.DemandTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AnimeControllerTest {
+
+	private MockMvc mockMvc;
+	private AnimeService animeService;
+	private ContentVersions contentVersions;
+
+	@BeforeEach
+	void setUp() {
+		animeService = mock(AnimeService.class);
+		contentVersions = new ContentVersions();
+		ReflectionTestUtils.setField(contentVersions, "maxEntries", 100L);
+		ReflectionTestUtils.invokeMethod(contentVersions, "initCache");
+
+		AnimeController controller = new AnimeController();
+		ReflectionTestUtils.setField(controller, "animeService", animeService);
+		ReflectionTestUtils.setField(controller, "contentVersions", contentVersions);
+		ReflectionTestUtils.setField(controller, "demandTracker", mock(DemandTracker.class));
+		ReflectionTestUtils.setField(controller, "jsonMapper", JsonMapper.builder().build());
+		ReflectionTestUtils.setField(controller, "finishedMaxAge", Duration.ofDays(1));
+		ReflectionTestUtils.setField(controller, "finishedStaleWhileRevalidate", Duration.ofDays(7));
+		ReflectionTestUtils.setField(controller, "airingMaxAge", Duration.ofMinutes(5));
+		ReflectionTestUtils.setField(controller, "airingStaleWhileRevalidate", Duration.ofHours(1));
+
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@Test
+	void repeatRequestWithMatchingEtagIsAnsweredWithoutTheService() throws Exception {
+		EpisodeAnalysisDTO analysis = new EpisodeAnalysisDTO();
+		analysis.setAnimeName("Fullmetal Alchemist: Brotherhood");
+		analysis.setAnimeStatus("Finished Airing");
+		when(animeService.analyzeEpisodes(5114L)).thenReturn(analysis);
+
+		MvcResult first = mockMvc.perform(get("/api/anime/5114/episodes/analysis"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", containsString("max-age=86400")))
+				.andReturn();
+		String etag = first.getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/api/anime/5114/episodes/analysis").header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string("ETag", etag));
+
+		verify(animeService, times(1)).analyzeEpisodes(5114L);
+		// Still counts as a read of the cached analysis, for refresh-ahead
+		verify(animeService).touchAnalysis(5114L);
+	}
+
+	@Test
+	void changedContentGetsAFreshResponse() throws Exception {
+		EpisodeAnalysisDTO analysis = new EpisodeAnalysisDTO();
+		analysis.setAnimeName("One Piece");
+		analysis.setAnimeStatus("Currently Airing");
+		when(animeService.analyzeEpisodes(21L)).thenReturn(analysis);
+
+		String etag = mockMvc.perform(get("/api/anime/21/episodes/analysis"))
+				.andExpect(header().string("Cache-Control", containsString("max-age=300")))
+				.andReturn().getResponse().getHeader("ETag");
+
+		contentVersions.invalidate(ContentVersions.analysisKey(21L));
+		analysis.setTotalEpisodes(1100);
+
+		mockMvc.perform(get("/api/anime/21/episodes/analysis").header("If-None-Match", etag))
+				.andExpect(status().isOk());
+
+		verify(animeService, times(2)).analyzeEpisodes(21L);
+	}
+
+	@Test
+	void trendParametersKeepTheirOwnEtags() throws Exception {
+		when(animeService.getTrends(21L, 5, 12, 100)).thenReturn(trends(5));
+		when(animeService.getTrends(21L, 3, 12, 100)).thenReturn(trends(3));
+
+		String fiveEpisodeEtag = mockMvc.perform(get("/api/anime/21/episodes/trends?window=5"))
+				.andReturn().getResponse().getHeader("ETag");
+		String threeEpisodeEtag = mockMvc.perform(get("/api/anime/21/episodes/trends?window=3"))
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/api/anime/21/episodes/trends?window=5").header("If-None-Match", fiveEpisodeEtag))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/api/anime/21/episodes/trends?window=3").header("If-None-Match", threeEpisodeEtag))
+				.andExpect(status().isNotModified());
+
+		// New episodes retire every combination at once
+		contentVersions.invalidate(ContentVersions.trendsKey(21L));
+		EpisodeTrendsDTO updated = trends(3);
+		updated.setTotalEpisodes(1100);
+		when(animeService.getTrends(21L, 3, 12, 100)).thenReturn(updated);
+
+		mockMvc.perform(get("/api/anime/21/episodes/trends?window=3").header("If-None-Match", threeEpisodeEtag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void upstreamOutagesAreNotReportedAsNotFound() throws Exception {
+		when(animeService.analyzeEpisodes(1L)).thenThrow(new UpstreamTimeoutException("slow", null));
+		when(animeService.analyzeEpisodes(2L))
+				.thenThrow(new UpstreamUnavailableException("open", Duration.ofSeconds(12)));
+
+		mockMvc.perform(get("/api/anime/1/episodes/analysis"))
+				.andExpect(status().isGatewayTimeout());
+		mockMvc.perform(get("/api/anime/2/episodes/analysis"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Retry-After", "12"));
+	}
+
+	private static EpisodeTrendsDTO trends(int window) {
+		EpisodeTrendsDTO trends = new EpisodeTrendsDTO();
+		trends.setAnimeName("One Piece");
+		trends.setAnimeStatus("Currently Airing");
+		trends.setRollingWindow(window);
+		return trends;
+	}
+}
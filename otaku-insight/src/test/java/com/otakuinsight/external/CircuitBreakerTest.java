@@ -0,0 +1,42 @@
+package com.otakuinsight.external;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+	private static final long OPEN_NANOS = 30_000_000_000L;
+
+	@Test
+	void opensOnceFailureRateIsReachedAndFailsFast() {
+		CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, OPEN_NANOS);
+
+		breaker.onSuccess();
+		breaker.onSuccess();
+		breaker.onFailure(0);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+		breaker.onFailure(0);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+		assertTrue(breaker.tryAcquire(1_000) > 0);
+	}
+
+	@Test
+	void halfOpenTrialDecidesTheNextState() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 1, 0.5, OPEN_NANOS);
+		breaker.onFailure(0);
+
+		// One trial after the open period, everyone else keeps failing fast
+		assertEquals(0, breaker.tryAcquire(OPEN_NANOS));
+		assertTrue(breaker.tryAcquire(OPEN_NANOS) > 0);
+
+		breaker.onFailure(OPEN_NANOS);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+		assertEquals(0, breaker.tryAcquire(2 * OPEN_NANOS));
+		breaker.onSuccess();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+	}
+}
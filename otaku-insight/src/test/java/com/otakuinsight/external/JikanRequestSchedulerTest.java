@@ -0,0 +1,263 @@
+package com.otakuinsight.external;
+
+import com.otakuinsight.external.JikanRequestScheduler.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JikanRequestSchedulerTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ExecutorService pool = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdownNow();
+	}
+
+	// ==========================================
+	// Token buckets
+	// ==========================================
+
+	@Test
+	void perSecondBucketSpacesOutABurst() {
+		JikanRequestScheduler scheduler = scheduler(2, 1000, 0.25);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 3; i++) {
+			scheduler.execute(Priority.INTERACTIVE, () -> "ok");
+		}
+
+		// Two from the full bucket, the third after half a second of refill
+		assertTrue(elapsedMillis(start) >= 400);
+	}
+
+	@Test
+	void perMinuteBucketHoldsCallsOnceSpent() throws Exception {
+		JikanRequestScheduler scheduler = scheduler(100, 2, 0.5);
+		scheduler.execute(Priority.INTERACTIVE, () -> "ok");
+		scheduler.execute(Priority.INTERACTIVE, () -> "ok");
+
+		Future<String> third = pool.submit(() -> scheduler.execute(Priority.INTERACTIVE, () -> "ok"));
+		assertThrows(TimeoutException.class, () -> third.get(300, TimeUnit.MILLISECONDS));
+	}
+
+	// ==========================================
+	// Admission order
+	// ==========================================
+
+	@Test
+	void waitingCallersAreAdmittedInPriorityOrder() throws Exception {
+		JikanRequestScheduler scheduler = scheduler(1, 1000, 0.25);
+		scheduler.execute(Priority.INTERACTIVE, () -> "drain");
+
+		List<Priority> admitted = new CopyOnWriteArrayList<>();
+		Future<?> background = pool.submit(() -> scheduler.execute(Priority.BACKGROUND,
+				() -> admitted.add(Priority.BACKGROUND)));
+		awaitQueueDepth(1);
+		Future<?> interactive = pool.submit(() -> scheduler.execute(Priority.INTERACTIVE,
+				() -> admitted.add(Priority.INTERACTIVE)));
+		awaitQueueDepth(2);
+
+		background.get(5, TimeUnit.SECONDS);
+		interactive.get(5, TimeUnit.SECONDS);
+		assertEquals(List.of(Priority.INTERACTIVE, Priority.BACKGROUND), admitted);
+	}
+
+	@Test
+	void warmupIsCappedToItsShareWithoutHoldingUpUsers() throws Exception {
+		// 10 per minute at a 10% share: one warm-up call per minute
+		JikanRequestScheduler scheduler = scheduler(100, 10, 0.1);
+		scheduler.execute(Priority.WARMUP, () -> "warm");
+
+		Future<String> secondWarmup = pool.submit(() -> scheduler.execute(Priority.WARMUP, () -> "warm"));
+		awaitQueueDepth(1);
+
+		assertEquals("user", pool.submit(() -> scheduler.execute(Priority.INTERACTIVE, () -> "user"))
+				.get(1, TimeUnit.SECONDS));
+		assertFalse(secondWarmup.isDone());
+	}
+
+	@Test
+	void runAsDemotesCallsOnThreadsItStarts() throws Exception {
+		JikanRequestScheduler scheduler = scheduler(100, 10, 0.1);
+
+		AtomicReference<Future<String>> child = new AtomicReference<>();
+		scheduler.runAs(Priority.WARMUP, () -> {
+			scheduler.execute(Priority.INTERACTIVE, () -> "warm");
+			// Started inside runAs, so it inherits the demotion and finds the warm-up share spent
+			child.set(pool.submit(() -> scheduler.execute(Priority.INTERACTIVE, () -> "warm")));
+		});
+
+		assertThrows(TimeoutException.class, () -> child.get().get(300, TimeUnit.MILLISECONDS));
+
+		// Outside runAs the caller's own priority applies again
+		assertEquals("user", scheduler.execute(Priority.INTERACTIVE, () -> "user"));
+	}
+
+	@Test
+	void liftAdmitsAQueuedWarmupCall() throws Exception {
+		JikanRequestScheduler scheduler = scheduler(100, 10, 0.1);
+
+		AtomicReference<JikanRequestScheduler.Ceiling> ceiling = new AtomicReference<>();
+		Future<?> warmer = pool.submit(() -> scheduler.runAs(Priority.WARMUP, () -> {
+			ceiling.set(scheduler.currentCeiling());
+			scheduler.execute(Priority.BACKGROUND, () -> "first");
+			scheduler.execute(Priority.BACKGROUND, () -> "second");
+		}));
+		awaitQueueDepth(1);
+
+		// An undemoted caller joins; the queued call no longer needs the warm-up share
+		scheduler.lift(ceiling.get());
+
+		warmer.get(1, TimeUnit.SECONDS);
+		assertEquals(Priority.INTERACTIVE, ceiling.get().priority());
+	}
+
+	// ==========================================
+	// Retries
+	// ==========================================
+
+	@Test
+	void tooManyRequestsWaitsForRetryAfterSeconds() {
+		JikanRequestScheduler scheduler = scheduler(100, 1000, 0.25);
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, "1");
+
+		long start = System.nanoTime();
+		String result = scheduler.execute(Priority.INTERACTIVE, failingOnce(tooManyRequests(headers)));
+
+		assertEquals("ok", result);
+		assertTrue(elapsedMillis(start) >= 900);
+	}
+
+	@Test
+	void tooManyRequestsWaitsForRetryAfterDate() {
+		JikanRequestScheduler scheduler = scheduler(100, 1000, 0.25);
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, DateTimeFormatter.RFC_1123_DATE_TIME
+				.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(2)));
+
+		long start = System.nanoTime();
+		scheduler.execute(Priority.INTERACTIVE, failingOnce(tooManyRequests(headers)));
+
+		// Whole seconds on the wire, so at least one of the two
+		assertTrue(elapsedMillis(start) >= 900);
+	}
+
+	@Test
+	void tooManyRequestsPausesEveryCaller() throws Exception {
+		JikanRequestScheduler scheduler = scheduler(100, 1000, 0.25);
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, "1");
+
+		Future<String> throttled = pool.submit(() ->
+				scheduler.execute(Priority.BACKGROUND, failingOnce(tooManyRequests(headers))));
+		while (meterRegistry.find("jikan.scheduler.retries").counter() == null) {
+			Thread.sleep(5);
+		}
+		// The pause follows the retry count
+		Thread.sleep(50);
+
+		long start = System.nanoTime();
+		scheduler.execute(Priority.INTERACTIVE, () -> "other");
+		assertTrue(elapsedMillis(start) >= 500);
+		assertEquals("ok", throttled.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void serverErrorsAreRetriedUpToTheLimit() {
+		JikanRequestScheduler scheduler = scheduler(100, 1000, 0.25);
+		AtomicInteger calls = new AtomicInteger();
+
+		assertThrows(HttpServerErrorException.class, () -> scheduler.execute(Priority.BACKGROUND, () -> {
+			calls.incrementAndGet();
+			throw HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Unavailable",
+					new HttpHeaders(), new byte[0], null);
+		}));
+		assertEquals(3, calls.get());
+	}
+
+	@Test
+	void clientErrorsAreNotRetried() {
+		JikanRequestScheduler scheduler = scheduler(100, 1000, 0.25);
+		AtomicInteger calls = new AtomicInteger();
+
+		assertThrows(HttpClientErrorException.class, () -> scheduler.execute(Priority.INTERACTIVE, () -> {
+			calls.incrementAndGet();
+			throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found",
+					new HttpHeaders(), new byte[0], null);
+		}));
+		assertEquals(1, calls.get());
+	}
+
+	// ==========================================
+	// Helpers
+	// ==========================================
+
+	private JikanRequestScheduler scheduler(int perSecond, int perMinute, double warmupShare) {
+		JikanRequestScheduler scheduler = new JikanRequestScheduler();
+		ReflectionTestUtils.setField(scheduler, "permitsPerSecond", perSecond);
+		ReflectionTestUtils.setField(scheduler, "permitsPerMinute", perMinute);
+		ReflectionTestUtils.setField(scheduler, "warmupShare", warmupShare);
+		ReflectionTestUtils.setField(scheduler, "maxConcurrentRequests", 8);
+		ReflectionTestUtils.setField(scheduler, "maxAttempts", 3);
+		ReflectionTestUtils.setField(scheduler, "baseBackoffMs", 1L);
+		ReflectionTestUtils.setField(scheduler, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.invokeMethod(scheduler, "init");
+		return scheduler;
+	}
+
+	private void awaitQueueDepth(int depth) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (meterRegistry.get("jikan.scheduler.queue.depth").gauge().value() < depth
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static Supplier<String> failingOnce(HttpStatusCodeException failure) {
+		AtomicInteger calls = new AtomicInteger();
+		return () -> {
+			if (calls.getAndIncrement() == 0) {
+				throw failure;
+			}
+			return "ok";
+		};
+	}
+
+	private static HttpClientErrorException tooManyRequests(HttpHeaders headers) {
+		return HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests",
+				headers, new byte[0], null);
+	}
+
+	private static long elapsedMillis(long startNanos) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	}
+}
@@ -0,0 +1,45 @@
+package com.otakuinsight.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EpisodeRatingsTest {
+
+	@Test
+	void growsPastInitialCapacityAndTrims() {
+		EpisodeRatings.Builder builder = new EpisodeRatings.Builder();
+		for (int episode = 1; episode <= 1000; episode++) {
+			builder.add(episode, 4.0 + (episode % 10) / 10.0);
+		}
+
+		EpisodeRatings ratings = builder.build();
+
+		assertEquals(1000, ratings.size());
+		assertEquals(1000, ratings.episodeNumber(999));
+		assertEquals(4.1, ratings.rating(0), 1e-9);
+		assertEquals(499, ratings.indexOf(500));
+		// 12 bytes per episode plus headers
+		assertEquals(12_048, ratings.sizeInBytes());
+	}
+
+	@Test
+	void sortsOutOfOrderRowsByEpisode() {
+		EpisodeRatings ratings = new EpisodeRatings.Builder()
+				.add(3, 4.3)
+				.add(1, 4.1)
+				.add(2, 4.2)
+				.build();
+
+		assertEquals(1, ratings.episodeNumber(0));
+		assertEquals(4.3, ratings.rating(2), 1e-9);
+		assertTrue(ratings.indexOf(7) < 0);
+	}
+
+	@Test
+	void emptyBuildIsShared() {
+		assertSame(EpisodeRatings.empty(), new EpisodeRatings.Builder().build());
+	}
+}
@@ -0,0 +1,90 @@
+package com.otakuinsight.repository;
+
+import com.otakuinsight.entity.AnimeEntity;
+import com.otakuinsight.entity.EpisodeEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"jikan.offline=true",
+		"spring.datasource.url=jdbc:h2:mem:episode-upserts;MODE=MySQL;NON_KEYWORDS=YEAR;DB_CLOSE_ON_EXIT=FALSE"
+})
+class EpisodeRepositoryImplTest {
+
+	@Autowired
+	private EpisodeRepository episodeRepository;
+
+	@Autowired
+	private AnimeRepository animeRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void rerunningAPageWritesNothing() {
+		AnimeEntity anime = anime(1L);
+		episodeRepository.upsertAll(List.of(episode(anime, 1, 4.0), episode(anime, 2, 4.5)));
+
+		EpisodeUpsertResult rerun = episodeRepository.upsertAll(
+				List.of(episode(anime, 1, 4.0), episode(anime, 2, 4.5)));
+
+		assertEquals(0, rerun.written());
+		assertEquals(2, rows(1L));
+	}
+
+	@Test
+	void changedRatingIsOneChange() {
+		AnimeEntity anime = anime(2L);
+		episodeRepository.upsertAll(List.of(episode(anime, 1, 4.0), episode(anime, 2, 4.5)));
+
+		EpisodeUpsertResult result = episodeRepository.upsertAll(
+				List.of(episode(anime, 1, 4.0), episode(anime, 2, 4.1)));
+
+		assertEquals(0, result.inserted().size());
+		assertEquals(1, result.updated().size());
+		EpisodeUpsertResult.Change change = result.updated().get(0);
+		assertEquals(4.5, change.before().getRating());
+		assertEquals(4.1, change.after().getRating());
+		assertEquals(4.1, jdbcTemplate.queryForObject(
+				"SELECT rating FROM episodes WHERE anime_mal_id = 2 AND episode_number = 2", Double.class));
+	}
+
+	@Test
+	void duplicatesInOneCallInsertOnce() {
+		AnimeEntity anime = anime(3L);
+
+		EpisodeUpsertResult result = episodeRepository.upsertAll(
+				List.of(episode(anime, 1, 4.0), episode(anime, 1, 4.0), episode(anime, 2, 4.5)));
+
+		assertEquals(2, result.inserted().size());
+		assertEquals(0, result.updated().size());
+		assertEquals(2, rows(3L));
+	}
+
+	private int rows(Long animeMalId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM episodes WHERE anime_mal_id = ?",
+				Integer.class, animeMalId);
+	}
+
+	private AnimeEntity anime(Long malId) {
+		AnimeEntity anime = new AnimeEntity();
+		anime.setMalId(malId);
+		anime.setTitle("Anime " + malId);
+		return animeRepository.save(anime);
+	}
+
+	private static EpisodeEntity episode(AnimeEntity anime, int number, double rating) {
+		EpisodeEntity episode = new EpisodeEntity();
+		episode.setAnime(anime);
+		episode.setEpisodeNumber(number);
+		episode.setTitle("Episode " + number);
+		episode.setRating(rating);
+		return episode;
+	}
+}
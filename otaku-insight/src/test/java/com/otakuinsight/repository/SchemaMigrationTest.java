@@ -0,0 +1,79 @@
+package com.otakuinsight.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The prod profile's schema setup: migrations applied by Flyway, then
+ * checked against the entities by Hibernate. A context that starts is
+ * the real assertion.
+ */
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=true",
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.datasource.url=jdbc:h2:mem:migrations;MODE=MySQL;NON_KEYWORDS=YEAR;DB_CLOSE_ON_EXIT=FALSE"
+})
+class SchemaMigrationTest {
+
+	private static final String LATEST_VERSION = "8";
+
+	@Autowired
+	private Flyway flyway;
+
+	@Test
+	void migrationsMatchTheEntities() {
+		assertEquals(LATEST_VERSION, flyway.info().current().getVersion().getVersion());
+	}
+
+	@Test
+	void databaseCreatedByDdlAutoIsBaselinedAndUpgraded() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:baselined;MODE=MySQL;NON_KEYWORDS=YEAR;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+		// The original entities' tables, before uk_episodes_anime_episode existed
+		jdbc.execute("create table anime (mal_id bigint not null, title varchar(255), episodes integer,"
+				+ " score float(53), status varchar(255), image_url varchar(500), year integer,"
+				+ " synopsis text, primary key (mal_id))");
+		jdbc.execute("create table episodes (id bigint not null auto_increment, anime_mal_id bigint,"
+				+ " episode_number integer, title varchar(255), rating float(53), primary key (id),"
+				+ " constraint FKepisodesanime foreign key (anime_mal_id) references anime (mal_id))");
+		jdbc.update("insert into anime (mal_id, title) values (1, 'Cowboy Bebop')");
+		jdbc.update("insert into episodes (anime_mal_id, episode_number, title, rating) values"
+				+ " (1, 1, 'Asteroid Blues', 4.1), (1, 2, 'Stray Dog Strut', 4.0),"
+				+ " (1, 1, 'Asteroid Blues', 4.3)");
+
+		Flyway.configure()
+				.dataSource(dataSource)
+				.baselineOnMigrate(true)
+				.baselineVersion("1")
+				.target("6")
+				.load()
+				.migrate();
+
+		// A stats row written before the leaderboard columns existed
+		jdbc.update("insert into episode_stats (anime_mal_id, episode_count, rating_sum, rating_sum_squares)"
+				+ " values (1, 2, 16.0, 130.0)");
+
+		Flyway.configure()
+				.dataSource(dataSource)
+				.load()
+				.migrate();
+
+		// Re-ingested duplicates collapse to the newest row
+		List<Double> ratings = jdbc.queryForList(
+				"select rating from episodes where anime_mal_id = 1 order by episode_number", Double.class);
+		assertEquals(List.of(4.3, 4.0), ratings);
+		assertEquals(8.0, jdbc.queryForObject("select average_rating from episode_stats", Double.class));
+		assertEquals(1.0, jdbc.queryForObject("select rating_stddev from episode_stats", Double.class));
+		assertEquals(0, jdbc.queryForObject("select count(*) from manga", Integer.class));
+	}
+}
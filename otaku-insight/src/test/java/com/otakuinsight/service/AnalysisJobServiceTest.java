@@ -0,0 +1,140 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.dto.AnalysisJobDTO;
+import com.otakuinsight.dto.EpisodeAnalysisDTO;
+import com.otakuinsight.external.UpstreamUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalysisJobServiceTest {
+
+	private AnalysisJobService jobService;
+	private AnimeService animeService;
+	private CrawlProgress crawlProgress;
+
+	@BeforeEach
+	void setUp() {
+		animeService = mock(AnimeService.class);
+		crawlProgress = new CrawlProgress();
+
+		jobService = new AnalysisJobService();
+		ReflectionTestUtils.setField(jobService, "animeService", animeService);
+		ReflectionTestUtils.setField(jobService, "crawlProgress", crawlProgress);
+		ReflectionTestUtils.setField(jobService, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(jobService, "maxConcurrent", 2);
+		ReflectionTestUtils.setField(jobService, "queueCapacity", 10);
+		ReflectionTestUtils.setField(jobService, "retention", Duration.ofMinutes(1));
+		ReflectionTestUtils.invokeMethod(jobService, "init");
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.invokeMethod(jobService, "shutdown");
+	}
+
+	@Test
+	void duplicateSubmitsMergeAndReportProgress() throws Exception {
+		EpisodeAnalysisDTO analysis = new EpisodeAnalysisDTO();
+		analysis.setAnimeName("One Piece");
+		CountDownLatch release = new CountDownLatch(1);
+
+		when(animeService.analyzeEpisodes(21L)).thenAnswer(invocation -> {
+			crawlProgress.pageDone(21L, 1, 3);
+			crawlProgress.pageDone(21L, 2, 3);
+			release.await(5, TimeUnit.SECONDS);
+			return analysis;
+		});
+
+		AnalysisJob job = jobService.submit(21L);
+		assertSame(job, jobService.submit(21L));
+
+		List<AnalysisJobDTO> events = new CopyOnWriteArrayList<>();
+		job.subscribe(events::add);
+		release.countDown();
+		awaitFinished(job);
+
+		AnalysisJobDTO done = job.snapshot();
+		assertEquals("SUCCEEDED", done.getStatus());
+		assertEquals(3, done.getPagesDone());
+		assertEquals(3, done.getTotalPages());
+		assertSame(analysis, done.getResult());
+		awaitEvent(events, "SUCCEEDED");
+		verify(animeService, times(1)).analyzeEpisodes(21L);
+
+		// Still readable, and a new submit starts over
+		assertSame(job, jobService.find(job.getId()));
+		assertNotEquals(job.getId(), jobService.submit(21L).getId());
+	}
+
+	@Test
+	void failuresCarryTheBlockingStatus() throws Exception {
+		when(animeService.analyzeEpisodes(99L))
+				.thenThrow(new UpstreamUnavailableException("Jikan unavailable", Duration.ofSeconds(30)));
+
+		AnalysisJob job = jobService.submit(99L);
+		awaitFinished(job);
+
+		assertEquals("FAILED", job.snapshot().getStatus());
+		assertEquals(503, job.snapshot().getErrorStatus());
+	}
+
+	@Test
+	void slowSubscriberDoesNotHoldUpTheCrawl() throws Exception {
+		AnalysisJob job = new AnalysisJob("job-1", 21L);
+		CountDownLatch unblock = new CountDownLatch(1);
+		List<AnalysisJobDTO> events = new CopyOnWriteArrayList<>();
+		job.subscribe(state -> {
+			try {
+				unblock.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			events.add(state);
+		});
+
+		// Returns at once even though the subscriber hasn't taken the first event
+		job.running();
+		job.pageDone(1, 2);
+		job.succeeded(new EpisodeAnalysisDTO());
+		assertTrue(events.isEmpty());
+
+		unblock.countDown();
+		awaitEvent(events, "SUCCEEDED");
+		assertEquals(List.of("QUEUED", "RUNNING", "RUNNING", "SUCCEEDED"),
+				events.stream().map(AnalysisJobDTO::getStatus).toList());
+	}
+
+	private static void awaitEvent(List<AnalysisJobDTO> events, String status) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while ((events.isEmpty() || !status.equals(events.get(events.size() - 1).getStatus()))
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(status, events.get(events.size() - 1).getStatus());
+	}
+
+	private static void awaitFinished(AnalysisJob job) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!job.isFinished() && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.dto.BatchResultDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchPipelineTest {
+
+	@Test
+	void emitsHitsImmediatelyAndMapsMissFailuresToStatuses() {
+		List<BatchResultDTO<String>> results = new CopyOnWriteArrayList<>();
+
+		try (BatchPipeline<String> pipeline = new BatchPipeline<>(2, results::add)) {
+			pipeline.emit(1L, "cached");
+			assertEquals(1, results.size());
+
+			pipeline.submit(2L, () -> "fetched");
+			pipeline.submit(3L, () -> {
+				throw new IllegalArgumentException("Invalid anime ID");
+			});
+			pipeline.submit(4L, () -> {
+				throw new RuntimeException("Anime not found");
+			});
+		}
+
+		Map<Object, Integer> statuses = results.stream()
+				.collect(Collectors.toMap(BatchResultDTO::getKey, BatchResultDTO::getStatus));
+		assertEquals(Map.of(1L, 200, 2L, 200, 3L, 400, 4L, 404), statuses);
+	}
+
+	@Test
+	void limitsConcurrentMisses() {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+
+		try (BatchPipeline<Integer> pipeline = new BatchPipeline<>(3, result -> { })) {
+			for (int i = 0; i < 30; i++) {
+				pipeline.submit(i, () -> {
+					peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+					try {
+						Thread.sleep(5);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return running.decrementAndGet();
+				});
+			}
+		}
+
+		assertTrue(peak.get() <= 3, "peak concurrency was " + peak.get());
+	}
+}
@@ -0,0 +1,59 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.entity.EpisodeStatsEntity;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EpisodeStatsAggregatorTest {
+
+	@Test
+	void tracksExtremesCountsAndHistogram() {
+		EpisodeStatsAggregator aggregator = new EpisodeStatsAggregator();
+		aggregator.add(1, "Pilot", 8.5);
+		aggregator.add(2, "Climax", 9.4);
+		aggregator.add(3, "Recap", 7.1);
+		aggregator.add(4, "Also Climax", 9.4);
+
+		EpisodeStatsEntity stats = new EpisodeStatsEntity();
+		aggregator.writeTo(stats);
+
+		assertEquals(4, stats.getEpisodeCount());
+		assertEquals(34.4, stats.getRatingSum(), 1e-9);
+		assertEquals(2, stats.getMaxEpisodeNumber());
+		assertEquals(3, stats.getMinEpisodeNumber());
+		assertEquals(2, stats.getEpisodesAbove9());
+		assertEquals(3, stats.getEpisodesAbove8());
+		assertArrayEquals(new int[] {0, 0, 0, 0, 0, 0, 0, 1, 1, 2}, stats.getHistogram());
+	}
+
+	@Test
+	void removeIsIncrementalExceptForExtremes() {
+		EpisodeStatsAggregator aggregator = new EpisodeStatsAggregator();
+		aggregator.add(1, "Pilot", 8.5);
+		aggregator.add(2, "Climax", 9.4);
+		aggregator.add(3, "Recap", 7.1);
+
+		assertFalse(aggregator.remove(2, 9.4));
+		assertTrue(aggregator.remove(1, 8.5));
+
+		EpisodeStatsEntity stats = new EpisodeStatsEntity();
+		aggregator.writeTo(stats);
+
+		EpisodeStatsAggregator restored = EpisodeStatsAggregator.from(stats);
+		restored.add(1, "Pilot", 8.0);
+		restored.writeTo(stats);
+
+		assertEquals(3, stats.getEpisodeCount());
+		assertEquals(24.5, stats.getRatingSum(), 1e-9);
+		assertEquals(2, stats.getEpisodesAbove8());
+	}
+
+	@Test
+	void scalesJikanScoresToTenPoints() {
+		assertEquals(9.13, EpisodeStatsAggregator.toTenPointScale(4.56521));
+	}
+}
@@ -0,0 +1,105 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.entity.AnimeEntity;
+import com.otakuinsight.entity.EpisodeEntity;
+import com.otakuinsight.entity.EpisodeStatsEntity;
+import com.otakuinsight.repository.AnimeRepository;
+import com.otakuinsight.repository.EpisodeRepository;
+import com.otakuinsight.repository.EpisodeStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"jikan.offline=true",
+		"spring.datasource.url=jdbc:h2:mem:episode-stats;MODE=MySQL;NON_KEYWORDS=YEAR;DB_CLOSE_ON_EXIT=FALSE"
+})
+class EpisodeStatsServiceTest {
+
+	@Autowired
+	private EpisodeStatsService episodeStatsService;
+
+	@Autowired
+	private EpisodeStatsRepository episodeStatsRepository;
+
+	@Autowired
+	private EpisodeRepository episodeRepository;
+
+	@Autowired
+	private AnimeRepository animeRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void pagesAppliedInOrderMatchARebuild() {
+		AnimeEntity anime = anime(1L);
+		write(anime, episode(1, 4.0), episode(2, 4.5), episode(3, 3.5));
+		// Second page is folded into the running totals
+		write(anime, episode(4, 4.2), episode(5, 3.8));
+
+		EpisodeStatsEntity incremental = episodeStatsRepository.findById(1L).orElseThrow();
+		EpisodeStatsEntity rebuilt = episodeStatsService.rebuild(1L);
+
+		assertEquals(5, incremental.getEpisodeCount());
+		assertEquals(rebuilt.getEpisodeCount(), incremental.getEpisodeCount());
+		assertEquals(rebuilt.getAverageRating(), incremental.getAverageRating(), 1e-9);
+		assertEquals(rebuilt.getRatingStdDev(), incremental.getRatingStdDev(), 1e-9);
+		assertEquals(rebuilt.getMinEpisodeNumber(), incremental.getMinEpisodeNumber());
+		assertEquals(rebuilt.getMaxEpisodeNumber(), incremental.getMaxEpisodeNumber());
+		assertEquals(rebuilt.getMaxEpisodeTitle(), incremental.getMaxEpisodeTitle());
+		assertArrayEquals(rebuilt.getHistogram(), incremental.getHistogram());
+	}
+
+	@Test
+	void rescoringAnExtremeForcesARebuild() {
+		AnimeEntity anime = anime(2L);
+		write(anime, episode(1, 4.0), episode(2, 4.5), episode(3, 3.5));
+
+		// Stored behind the service's back, so only a rebuild counts it
+		jdbcTemplate.update("INSERT INTO episodes (anime_mal_id, episode_number, title, rating) "
+				+ "VALUES (2, 99, 'Recap', 2.0)");
+
+		// Neither the highest nor the lowest - updated in place
+		write(anime, episode(1, 4.2));
+		assertEquals(3, episodeStatsRepository.findById(2L).orElseThrow().getEpisodeCount());
+
+		// The highest-rated episode drops, so the maximum has to be looked up again
+		write(anime, episode(2, 3.9));
+		EpisodeStatsEntity stats = episodeStatsRepository.findById(2L).orElseThrow();
+		assertEquals(4, stats.getEpisodeCount());
+		assertEquals(1, stats.getMaxEpisodeNumber());
+		assertEquals(8.4, stats.getMaxRating(), 1e-9);
+		assertEquals(99, stats.getMinEpisodeNumber());
+		assertEquals("Recap", stats.getMinEpisodeTitle());
+	}
+
+	private AnimeEntity anime(Long malId) {
+		AnimeEntity anime = new AnimeEntity();
+		anime.setMalId(malId);
+		anime.setTitle("Anime " + malId);
+		return animeRepository.save(anime);
+	}
+
+	private void write(AnimeEntity anime, EpisodeEntity... page) {
+		for (EpisodeEntity episode : page) {
+			episode.setAnime(anime);
+		}
+		episodeStatsService.apply(anime.getMalId(), () -> episodeRepository.upsertAll(List.of(page)));
+	}
+
+	// Jikan's five-point rating, stored as is
+	private static EpisodeEntity episode(int number, double rating) {
+		EpisodeEntity episode = new EpisodeEntity();
+		episode.setEpisodeNumber(number);
+		episode.setTitle("Episode " + number);
+		episode.setRating(rating);
+		return episode;
+	}
+}
@@ -0,0 +1,82 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.dto.EpisodeDTO;
+import com.otakuinsight.dto.EpisodeTrendsDTO;
+import com.otakuinsight.repository.EpisodeRatings;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EpisodeTrendAnalyzerTest {
+
+	@Test
+	void segmentsCurveAndExtremesInOnePass() {
+		// Two cours of 8.0 with a spike at 13 and a dip at 20
+		EpisodeRatings.Builder builder = new EpisodeRatings.Builder();
+		for (int episode = 1; episode <= 24; episode++) {
+			builder.add(episode, episode == 13 ? 4.8 : episode == 20 ? 3.0 : 4.0);
+		}
+
+		EpisodeTrendsDTO trends = EpisodeTrendAnalyzer.analyze(builder.build(), 3, 12, 6, 2, 0.7);
+
+		assertEquals(24, trends.getTotalEpisodes());
+
+		assertEquals(2, trends.getSegments().size());
+		EpisodeTrendsDTO.Segment second = trends.getSegments().get(1);
+		assertEquals(13, second.getFirstEpisode());
+		assertEquals(24, second.getLastEpisode());
+		assertEquals(12, second.getRatedEpisodes());
+		assertEquals(7.97, second.getAverageRating(), 1e-9);
+		assertEquals(6.0, second.getMinRating(), 1e-9);
+		assertEquals(9.6, second.getMaxRating(), 1e-9);
+
+		// The recovery after the dip stays under min-deviation
+		assertEquals(List.of(13), episodeNumbers(trends.getPeaks()));
+		assertEquals(List.of(20), episodeNumbers(trends.getSlumps()));
+		assertEquals(9.6, trends.getPeaks().get(0).getRating(), 1e-9);
+
+		// 24 episodes in 6 points of 4
+		EpisodeTrendsDTO.Curve curve = trends.getCurve();
+		assertArrayEquals(new int[] {4, 8, 12, 16, 20, 24}, curve.getEpisodes());
+		assertArrayEquals(new double[] {8.0, 8.0, 8.0, 8.4, 7.5, 8.0}, curve.getAverageRating(), 1e-9);
+		assertEquals(6.0, curve.getMinRating()[4], 1e-9);
+		assertEquals(7.33, curve.getRollingAverage()[4], 1e-9);
+		assertEquals(8.0, curve.getRollingAverage()[5], 1e-9);
+	}
+
+	@Test
+	void nearestRankPercentiles() {
+		// 1.0 to 10.0 on the 10-point scale
+		EpisodeRatings.Builder builder = new EpisodeRatings.Builder();
+		for (int episode = 1; episode <= 10; episode++) {
+			builder.add(episode, episode / 2.0);
+		}
+
+		EpisodeTrendsDTO trends = EpisodeTrendAnalyzer.analyze(builder.build(), 5, 12, 100, 5, 0.3);
+
+		assertEquals(1.0, trends.getP10(), 1e-9);
+		assertEquals(3.0, trends.getP25(), 1e-9);
+		assertEquals(5.0, trends.getMedian(), 1e-9);
+		assertEquals(8.0, trends.getP75(), 1e-9);
+		assertEquals(9.0, trends.getP90(), 1e-9);
+		// Fewer episodes than points: one point each
+		assertEquals(10, trends.getCurve().getEpisodes().length);
+	}
+
+	@Test
+	void emptyRatings() {
+		EpisodeTrendsDTO trends = EpisodeTrendAnalyzer.analyze(EpisodeRatings.empty(), 5, 12, 100, 5, 0.3);
+
+		assertEquals(0, trends.getTotalEpisodes());
+		assertTrue(trends.getSegments().isEmpty());
+		assertEquals(0, trends.getCurve().getEpisodes().length);
+	}
+
+	private static List<Integer> episodeNumbers(List<EpisodeDTO> episodes) {
+		return episodes.stream().map(EpisodeDTO::getEpisodeNumber).toList();
+	}
+}
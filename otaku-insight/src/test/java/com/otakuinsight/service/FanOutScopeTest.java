@@ -0,0 +1,113 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.external.UpstreamTimeoutException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FanOutScopeTest {
+
+	@Test
+	void joinsResultsOfEveryTask() {
+		try (FanOutScope scope = new FanOutScope(Duration.ofSeconds(5))) {
+			Future<String> title = scope.fork(() -> "Fullmetal Alchemist");
+			Future<Integer> chapters = scope.fork(() -> 116);
+
+			assertEquals("Fullmetal Alchemist", scope.join(title));
+			assertEquals(116, scope.join(chapters));
+		}
+	}
+
+	@Test
+	void firstFailureCancelsSiblings() throws Exception {
+		CountDownLatch siblingInterrupted = new CountDownLatch(1);
+
+		try (FanOutScope scope = new FanOutScope(Duration.ofSeconds(5))) {
+			Future<String> slow = scope.fork(() -> {
+				try {
+					Thread.sleep(10_000);
+				} catch (InterruptedException e) {
+					siblingInterrupted.countDown();
+				}
+				return "late";
+			});
+			Future<String> failing = scope.fork(() -> {
+				throw new IllegalStateException("relations unavailable");
+			});
+
+			// Rethrown as-is so callers map it like a direct call
+			IllegalStateException failure = assertThrows(IllegalStateException.class, () -> scope.join(failing));
+			assertEquals("relations unavailable", failure.getMessage());
+
+			assertTrue(siblingInterrupted.await(1, TimeUnit.SECONDS));
+			assertTrue(slow.isDone());
+		}
+	}
+
+	@Test
+	void forkAfterAFailureRethrowsThatFailure() throws Exception {
+		try (FanOutScope scope = new FanOutScope(Duration.ofSeconds(5))) {
+			Future<String> failing = scope.fork(() -> {
+				throw new UpstreamTimeoutException("title lookup timed out", null);
+			});
+			while (!failing.isDone()) {
+				Thread.sleep(5);
+			}
+
+			// The sibling's timeout, not a rejected fork, so callers still answer 504
+			UpstreamTimeoutException failure = assertThrows(UpstreamTimeoutException.class,
+					() -> scope.fork(() -> "details"));
+			assertEquals("title lookup timed out", failure.getMessage());
+		}
+	}
+
+	@Test
+	void closeWaitsForInterruptedTasks() {
+		AtomicBoolean finished = new AtomicBoolean();
+
+		try (FanOutScope scope = new FanOutScope(Duration.ofSeconds(5))) {
+			scope.fork(() -> {
+				try {
+					Thread.sleep(10_000);
+				} catch (InterruptedException e) {
+					// Cleanup that takes a moment
+					Thread.sleep(100);
+					finished.set(true);
+				}
+				return "late";
+			});
+		}
+
+		assertTrue(finished.get());
+	}
+
+	@Test
+	void deadlineCoversTheWholeScope() throws Exception {
+		CountDownLatch interrupted = new CountDownLatch(1);
+
+		try (FanOutScope scope = new FanOutScope(Duration.ofMillis(200))) {
+			Future<String> hanging = scope.fork(() -> {
+				try {
+					Thread.sleep(10_000);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				return "late";
+			});
+
+			long start = System.nanoTime();
+			assertThrows(UpstreamTimeoutException.class, () -> scope.join(hanging));
+			assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+			// The timed-out task doesn't outlive the scope's deadline
+			assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.dto.LeaderboardPageDTO;
+import com.otakuinsight.dto.RankedAnimeDTO;
+import com.otakuinsight.dto.RankedEpisodeDTO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+		"jikan.offline=true",
+		"spring.datasource.url=jdbc:h2:mem:leaderboards;MODE=MySQL;NON_KEYWORDS=YEAR;DB_CLOSE_ON_EXIT=FALSE"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LeaderboardServiceTest {
+
+	@Autowired
+	private SnapshotImporter snapshotImporter;
+
+	@Autowired
+	private LeaderboardService leaderboardService;
+
+	@BeforeAll
+	void importCatalog(@TempDir Path snapshot) throws IOException {
+		Files.writeString(snapshot.resolve("anime.ndjson"), """
+				{"mal_id": 1, "title": "A", "score": 9.0, "aired": {"prop": {"from": {"year": 2011}}}}
+				{"mal_id": 2, "title": "B", "score": 8.5, "aired": {"prop": {"from": {"year": 2011}}}}
+				{"mal_id": 3, "title": "C", "score": 9.0, "aired": {"prop": {"from": {"year": 2020}}}}
+				""");
+		Files.writeString(snapshot.resolve("episodes.ndjson"), """
+				{"anime_mal_id": 1, "mal_id": 1, "title": "A1", "score": 4.5}
+				{"anime_mal_id": 1, "mal_id": 2, "title": "A2", "score": 4.5}
+				{"anime_mal_id": 1, "mal_id": 3, "title": "A3", "score": 4.0}
+				{"anime_mal_id": 2, "mal_id": 1, "title": "B1", "score": 4.5}
+				{"anime_mal_id": 2, "mal_id": 2, "title": "B2", "score": 4.4}
+				""");
+		snapshotImporter.importFrom(snapshot);
+	}
+
+	@Test
+	void topEpisodesPageThroughTies() {
+		LeaderboardPageDTO<RankedEpisodeDTO> first = leaderboardService.topEpisodes(null, 2);
+		LeaderboardPageDTO<RankedEpisodeDTO> second = leaderboardService.topEpisodes(first.getNextCursor(), 2);
+		LeaderboardPageDTO<RankedEpisodeDTO> last = leaderboardService.topEpisodes(second.getNextCursor(), 2);
+
+		assertEquals(List.of("A1", "A2"), titles(first));
+		assertEquals(List.of("B1", "B2"), titles(second));
+		assertEquals(List.of("A3"), titles(last));
+		assertNull(last.getNextCursor());
+		assertEquals(9.0, first.getItems().get(0).getRating(), 1e-9);
+		assertEquals("A", first.getItems().get(0).getAnimeTitle());
+	}
+
+	@Test
+	void topAnimeByYear() {
+		assertEquals(List.of(1L, 2L), ids(leaderboardService.topAnime(2011, null, 10)));
+		assertEquals(List.of(1L, 3L, 2L), ids(leaderboardService.topAnime(null, null, 10)));
+
+		LeaderboardPageDTO<RankedAnimeDTO> first = leaderboardService.topAnime(null, null, 1);
+		assertEquals(List.of(3L), ids(leaderboardService.topAnime(null, first.getNextCursor(), 1)));
+	}
+
+	@Test
+	void mostConsistentRespectsMinimumEpisodes() {
+		LeaderboardPageDTO<RankedAnimeDTO> page = leaderboardService.mostConsistent(2, null, 10);
+
+		assertEquals(List.of(2L, 1L), ids(page));
+		assertEquals(0.1, page.getItems().get(0).getRatingStdDev(), 1e-9);
+		assertEquals(8.9, page.getItems().get(0).getAverageRating(), 1e-9);
+		assertEquals(8.67, page.getItems().get(1).getAverageRating(), 1e-9);
+		assertEquals(List.of(1L), ids(leaderboardService.mostConsistent(3, null, 10)));
+	}
+
+	@Test
+	void rejectsBadCursorsAndLimits() {
+		assertThrows(IllegalArgumentException.class, () -> leaderboardService.topEpisodes("not-a-cursor", 10));
+		assertThrows(IllegalArgumentException.class, () -> leaderboardService.topAnime(null, null, 0));
+	}
+
+	private static List<String> titles(LeaderboardPageDTO<RankedEpisodeDTO> page) {
+		return page.getItems().stream().map(RankedEpisodeDTO::getTitle).toList();
+	}
+
+	private static List<Long> ids(LeaderboardPageDTO<RankedAnimeDTO> page) {
+		return page.getItems().stream().map(RankedAnimeDTO::getMalId).toList();
+	}
+}
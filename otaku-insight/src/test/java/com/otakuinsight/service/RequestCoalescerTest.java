@@ -0,0 +1,120 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.external.JikanRequestScheduler;
+import com.otakuinsight.external.JikanRequestScheduler.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+
+	private RequestCoalescer coalescer;
+	private JikanRequestScheduler scheduler;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		coalescer = new RequestCoalescer();
+		meterRegistry = new SimpleMeterRegistry();
+		scheduler = new JikanRequestScheduler();
+		ReflectionTestUtils.setField(coalescer, "scheduler", scheduler);
+		ReflectionTestUtils.setField(coalescer, "meterRegistry", meterRegistry);
+	}
+
+	@Test
+	void concurrentCallersShareOneExecution() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int callers = 8;
+
+		ExecutorService pool = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				results.add(pool.submit(() -> coalescer.execute("episodes:21", () -> {
+					executions.incrementAndGet();
+					await(release);
+					return "analysis";
+				})));
+			}
+
+			// Give every caller a chance to join before the leader finishes
+			while (meterRegistry.counter("coalescer.calls",
+					"operation", "episodes", "outcome", "coalesced").count() < callers - 1) {
+				Thread.sleep(5);
+			}
+			release.countDown();
+
+			for (Future<String> result : results) {
+				assertEquals("analysis", result.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, executions.get());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void failuresAreNotCached() {
+		assertThrows(IllegalStateException.class, () -> coalescer.execute("manga:1", () -> {
+			throw new IllegalStateException("upstream down");
+		}));
+
+		assertEquals("ok", coalescer.execute("manga:1", () -> "ok"));
+	}
+
+	@Test
+	void joiningLiftsADemotedLeader() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicReference<JikanRequestScheduler.Ceiling> leaderCeiling = new AtomicReference<>();
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> warmer = pool.submit(() -> scheduler.runAs(Priority.WARMUP,
+					() -> coalescer.execute("episodes:21", () -> {
+						leaderCeiling.set(scheduler.currentCeiling());
+						started.countDown();
+						await(release);
+						return "analysis";
+					})));
+			await(started);
+			assertEquals(Priority.WARMUP, leaderCeiling.get().priority());
+
+			// An undemoted user request joins the warm-up crawl
+			Future<String> user = pool.submit(() -> coalescer.execute("episodes:21", () -> "own"));
+			while (leaderCeiling.get().priority() != Priority.INTERACTIVE) {
+				Thread.sleep(5);
+			}
+			release.countDown();
+
+			assertEquals("analysis", user.get(5, TimeUnit.SECONDS));
+			warmer.get(5, TimeUnit.SECONDS);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.dto.EpisodeAnalysisDTO;
+import com.otakuinsight.dto.EpisodeRatingsDTO;
+import com.otakuinsight.dto.MangaInfoDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = {
+		"jikan.offline=true",
+		"spring.datasource.url=jdbc:h2:mem:snapshot;MODE=MySQL;NON_KEYWORDS=YEAR;DB_CLOSE_ON_EXIT=FALSE"
+})
+class SnapshotImporterTest {
+
+	@Autowired
+	private SnapshotImporter snapshotImporter;
+
+	@Autowired
+	private AnimeService animeService;
+
+	@Autowired
+	private MangaService mangaService;
+
+	@TempDir
+	Path snapshot;
+
+	@Test
+	void importedSnapshotIsServedOffline() throws IOException {
+		// Anime as a JSON array, the rest as NDJSON
+		Files.writeString(snapshot.resolve("anime.json"), """
+				[
+				  {"mal_id": 5114, "title": "Fullmetal Alchemist: Brotherhood", "status": "Finished Airing",
+				   "title_synonyms": ["Hagane no Renkinjutsushi: Fullmetal Alchemist"], "score": 9.1},
+				  {"mal_id": 9253, "title": "Steins;Gate", "status": "Finished Airing", "score": 9.07}
+				]
+				""");
+		Files.writeString(snapshot.resolve("manga.ndjson"), """
+				{"mal_id": 25, "title": "Fullmetal Alchemist", "chapters": 116, "volumes": 27, "status": "Finished"}
+				""");
+		Files.writeString(snapshot.resolve("relations.ndjson"), """
+				{"anime_mal_id": 5114, "data": [{"relation": "Adaptation", "entry": [{"mal_id": 25, "type": "manga", "name": "Fullmetal Alchemist"}]}, {"relation": "Side story", "entry": [{"mal_id": 6421, "type": "anime", "name": "Specials"}]}]}
+				""");
+		Files.writeString(snapshot.resolve("episodes.ndjson"), """
+				{"anime_mal_id": 5114, "mal_id": 1, "title": "Fullmetal Alchemist", "score": 4.2}
+				{"anime_mal_id": 5114, "mal_id": 2, "title": "The First Day", "score": 4.5}
+				{"anime_mal_id": 5114, "mal_id": 3, "title": "City of Heresy", "score": 4.1}
+				{"anime_mal_id": 5114, "mal_id": 4, "title": "Unscored", "score": null}
+				{"anime_mal_id": 1, "mal_id": 1, "title": "Anime not in the snapshot", "score": 4.0}
+				""");
+
+		SnapshotImporter.ImportSummary summary = snapshotImporter.importFrom(snapshot);
+
+		assertEquals(new SnapshotImporter.ImportSummary(2, 1, 1, 3), summary);
+
+		// Crawl marked complete, so no upstream paging is attempted
+		EpisodeAnalysisDTO analysis = animeService.analyzeEpisodes(5114L);
+		assertEquals(3, analysis.getTotalEpisodes());
+		assertEquals(2, analysis.getHighestRatedEpisode().getEpisodeNumber());
+		assertEquals("The First Day", analysis.getHighestRatedEpisode().getTitle());
+		assertFalse(analysis.isStale());
+
+		EpisodeRatingsDTO curve = animeService.getRatingCurve(5114L);
+		assertArrayEquals(new int[] {1, 2, 3}, curve.getEpisodeNumbers());
+		assertArrayEquals(new double[] {8.4, 9.0, 8.2}, curve.getRatings(), 1e-9);
+
+		MangaInfoDTO manga = mangaService.getMangaInfo(5114L);
+		assertEquals("Fullmetal Alchemist", manga.getMangaTitle());
+		assertEquals(116, manga.getTotalMangaChapters());
+
+		// Offline, a weak local match is the answer rather than a 404
+		assertEquals(9253L, animeService.searchAnime("steins gate 0").getMalId());
+	}
+}
@@ -0,0 +1,79 @@
+package com.otakuinsight.service;
+
+import com.otakuinsight.entity.AnimeEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TitleSearchIndexTest {
+
+	private TitleSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new TitleSearchIndex();
+		ReflectionTestUtils.setField(index, "confidentMatch", 0.9);
+		ReflectionTestUtils.setField(index, "minSharedGrams", 0.25);
+
+		index.index(anime(20L, "Naruto", null, "ナルト", null, 8.0));
+		index.index(anime(1735L, "Naruto: Shippuuden", "Naruto Shippuden", "ナルト- 疾風伝", null, 8.3));
+		index.index(anime(5114L, "Fullmetal Alchemist: Brotherhood", null, null, "FMA\nFMAB", 9.1));
+	}
+
+	@Test
+	void exactTitleBeatsLongerTitleWithSamePrefix() {
+		assertEquals(Optional.of(20L), index.findConfidentMatch("naruto"));
+		assertEquals(Optional.of(1735L), index.findConfidentMatch("Naruto Shippuden"));
+	}
+
+	@Test
+	void matchesSynonymsAndJapaneseTitles() {
+		assertEquals(Optional.of(5114L), index.findConfidentMatch("FMAB"));
+		assertEquals(Optional.of(20L), index.findConfidentMatch("ナルト"));
+	}
+
+	@Test
+	void typosRankButAreNotConfident() {
+		List<TitleSearchIndex.Match> matches = index.search("fullmetal alchemst", 3);
+
+		assertEquals(5114L, matches.get(0).malId());
+		assertTrue(index.findConfidentMatch("fullmetal alchemst").isEmpty());
+	}
+
+	@Test
+	void titlesSharingOnlyAWordStartAreNotCandidates() {
+		index.index(anime(4081L, "Natsume Yuujinchou", "Natsume's Book of Friends", null, null, 8.4));
+
+		// "Naruto" shares just the padded "n" grams with the query
+		assertEquals(List.of(4081L), index.search("natsume yujinchou", 10).stream()
+				.map(TitleSearchIndex.Match::malId)
+				.toList());
+	}
+
+	@Test
+	void reindexingReplacesOldTitles() {
+		index.index(anime(20L, "Boruto", null, null, null, 6.0));
+
+		assertEquals(Optional.of(20L), index.findConfidentMatch("boruto"));
+		assertEquals(Optional.empty(), index.findConfidentMatch("naruto"));
+	}
+
+	private static AnimeEntity anime(Long malId, String title, String english,
+									 String japanese, String synonyms, Double score) {
+		AnimeEntity anime = new AnimeEntity();
+		anime.setMalId(malId);
+		anime.setTitle(title);
+		anime.setTitleEnglish(english);
+		anime.setTitleJapanese(japanese);
+		anime.setTitleSynonyms(synonyms);
+		anime.setScore(score);
+		return anime;
+	}
+
+}